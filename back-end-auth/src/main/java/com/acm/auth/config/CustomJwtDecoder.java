@@ -4,31 +4,32 @@ import java.text.ParseException;
 import java.time.Instant;
 import java.util.Date;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.SignedJWT;
 
 import lombok.extern.slf4j.Slf4j;
-import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.token.TokenRevocationIndex;
 
 @Component
 @Slf4j
 public class CustomJwtDecoder implements JwtDecoder {
 
-    @Value("${jwt.signer-key}")
-    private String signerKey;
+    private final JwsKeyMaterial jwsKeyMaterial;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final TokenEpochService tokenEpochService;
 
-    private final InvalidatedTokenRepository invalidatedTokenRepository;
-
-    public CustomJwtDecoder(InvalidatedTokenRepository invalidatedTokenRepository) {
-        this.invalidatedTokenRepository = invalidatedTokenRepository;
+    public CustomJwtDecoder(JwsKeyMaterial jwsKeyMaterial, TokenRevocationIndex tokenRevocationIndex,
+            TokenEpochService tokenEpochService) {
+        this.jwsKeyMaterial = jwsKeyMaterial;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.tokenEpochService = tokenEpochService;
     }
 
     @Override
@@ -36,8 +37,7 @@ public class CustomJwtDecoder implements JwtDecoder {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
 
-            JWSVerifier verifier = new MACVerifier(signerKey.getBytes());
-            boolean verified = signedJWT.verify(verifier);
+            boolean verified = jwsKeyMaterial.verify(signedJWT);
 
             Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
             boolean notExpired = expirationTime != null && expirationTime.after(new Date());
@@ -47,10 +47,14 @@ public class CustomJwtDecoder implements JwtDecoder {
             }
 
             String jwtId = signedJWT.getJWTClaimsSet().getJWTID();
-            if (jwtId != null && invalidatedTokenRepository.existsById(jwtId)) {
+            if (jwtId != null && tokenRevocationIndex.isRevoked(jwtId)) {
                 throw new JwtException("Token has been invalidated");
             }
 
+            if (!tokenEpochService.isCurrent(signedJWT.getJWTClaimsSet())) {
+                throw new JwtException("Token has been revoked");
+            }
+
             Instant issuedAt = signedJWT.getJWTClaimsSet().getIssueTime() != null
                     ? signedJWT.getJWTClaimsSet().getIssueTime().toInstant()
                     : Instant.now();
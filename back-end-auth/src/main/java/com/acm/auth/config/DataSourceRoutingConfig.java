@@ -0,0 +1,99 @@
+package com.acm.auth.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write split, enabled when datasource.replica.url is set.
+ *
+ * Transactions marked {@code @Transactional(readOnly = true)} set their connection
+ * read-only before running any statement; the lazy proxy then takes the physical
+ * connection from the replica instead of the primary. Everything else, and every
+ * read-only transaction while the replica is down or lagging, uses the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isBlank()")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${datasource.replica.max-pool-size:10}") int maxPoolSize,
+            @Value("${datasource.replica.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${datasource.replica.validation-timeout-ms:500}") long validationTimeoutMs,
+            @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        pool.setPoolName("replica");
+        pool.setMaximumPoolSize(maxPoolSize);
+        // Fail over to the primary quickly instead of waiting out Hikari's 30s default
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setValidationTimeout(validationTimeoutMs);
+        pool.setReadOnly(true);
+        // Let the application start while the replica is down; reads use the primary meanwhile
+        pool.setInitializationFailTimeout(-1);
+
+        ReplicaDataSource replica = new ReplicaDataSource(pool, primaryDataSource, maxLagSeconds, lagQuery, lagColumn);
+        replica.checkLag();
+        Gauge.builder("datasource.replica.lag", replica, ReplicaDataSource::getLagSeconds)
+                .baseUnit("seconds")
+                .description("Replica lag behind the primary, -1 when unknown")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                .register(meterRegistry);
+        return replica;
+    }
+
+    /**
+     * Runs the replica lag check, which can block on an unreachable replica, on
+     * its own thread instead of the shared task scheduler.
+     */
+    @Bean
+    ThreadPoolTaskScheduler replicaScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("replica-check-");
+        return scheduler;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
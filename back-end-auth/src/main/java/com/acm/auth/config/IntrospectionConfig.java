@@ -0,0 +1,28 @@
+package com.acm.auth.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+@Configuration
+public class IntrospectionConfig {
+
+    /**
+     * Worker pool for verifying token signatures in batch introspection.
+     * When the queue is full the request thread verifies the token itself.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService introspectionExecutor(@Value("${introspect.batch.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024),
+                new CustomizableThreadFactory("introspect-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
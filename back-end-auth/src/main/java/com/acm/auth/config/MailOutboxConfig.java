@@ -0,0 +1,40 @@
+package com.acm.auth.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class MailOutboxConfig {
+
+    /**
+     * Delivery workers for the email outbox; each one sends its slice of a batch
+     * over a pooled SMTP connection.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService outboxExecutor(@Value("${mail.outbox.workers:2}") int workers) {
+        int threads = Math.max(1, workers);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("mail-outbox-"));
+    }
+
+    /**
+     * Runs the outbox drain loop, which waits for a whole run of SMTP sends, on
+     * its own thread instead of the shared task scheduler.
+     */
+    @Bean
+    ThreadPoolTaskScheduler outboxScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("mail-outbox-scheduler-");
+        return scheduler;
+    }
+}
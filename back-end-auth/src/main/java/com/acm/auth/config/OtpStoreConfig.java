@@ -0,0 +1,47 @@
+package com.acm.auth.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.acm.auth.repository.OtpVerificationRepository;
+import com.acm.auth.service.otp.InMemoryOtpStore;
+import com.acm.auth.service.otp.JpaOtpStore;
+import com.acm.auth.service.otp.OtpStore;
+
+import jakarta.persistence.EntityManager;
+
+@Configuration
+public class OtpStoreConfig {
+
+    /**
+     * Challenges in otp_verifications; required when more than one node serves OTP
+     * requests without sticky routing.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "jpa", matchIfMissing = true)
+    OtpStore jpaOtpStore(OtpVerificationRepository otpVerificationRepository, EntityManager entityManager) {
+        return new JpaOtpStore(otpVerificationRepository, entityManager);
+    }
+
+    /**
+     * Challenges in node memory; otp.memory.write-through also keeps them in
+     * otp_verifications so they survive a restart.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+    OtpStore inMemoryOtpStore(OtpVerificationRepository otpVerificationRepository, EntityManager entityManager,
+            Clock clock,
+            @Value("${otp.memory.shards:16}") int shards,
+            @Value("${otp.memory.tick-ms:1000}") long tickMs,
+            @Value("${otp.memory.expired-retention-seconds:300}") long expiredRetentionSeconds,
+            @Value("${otp.memory.write-through:false}") boolean writeThrough) {
+        return new InMemoryOtpStore(clock, shards, Duration.ofMillis(tickMs),
+                Duration.ofSeconds(expiredRetentionSeconds),
+                writeThrough ? new JpaOtpStore(otpVerificationRepository, entityManager) : null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.acm.auth.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import com.acm.auth.service.password.BoundedPasswordEncoder;
+import com.acm.auth.service.password.PasswordCostCalibrator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@Slf4j
+public class PasswordHashingConfig {
+
+    /**
+     * Worker pool for password hashing, sized to the cores so a burst of sign-ins
+     * cannot take every CPU. Submissions beyond the queue capacity are rejected.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ThreadPoolExecutor passwordHashingExecutor(@Value("${password.hashing.threads:0}") int threads,
+            @Value("${password.hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Feeds bulk-import rows into the password encoder. Each worker waits on one hash,
+     * so the default of half the cores leaves the other half of the pool to sign-ins.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService importHashingExecutor(@Value("${user-import.hashing-parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("user-import-"));
+    }
+
+    /**
+     * Hashes are stored as {id}hash. New hashes use password.hashing.algorithm;
+     * hashes without a prefix are the original BCrypt ones and still match.
+     * Costs left at 0 are calibrated against password.hashing.target-ms at startup.
+     */
+    @Bean
+    PasswordEncoder passwordEncoder(ThreadPoolExecutor passwordHashingExecutor, MeterRegistry meterRegistry,
+            @Value("${password.hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${password.hashing.target-ms:100}") long targetMs,
+            @Value("${password.hashing.bcrypt-strength:0}") int bcryptStrength,
+            @Value("${password.hashing.argon2-iterations:0}") int argon2Iterations) {
+        PasswordCostCalibrator calibrator = new PasswordCostCalibrator(Duration.ofMillis(targetMs));
+        // Only the encoder used for new hashes is calibrated; BCrypt and Argon2 read
+        // the cost of existing hashes from the hash itself.
+        boolean bcrypt = "bcrypt".equals(algorithm);
+        boolean argon2 = "argon2".equals(algorithm);
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : bcrypt ? calibrator.bcryptStrength() : PasswordCostCalibrator.BCRYPT_MIN_STRENGTH;
+        int iterations = argon2Iterations > 0 ? argon2Iterations
+                : argon2 ? calibrator.argon2Iterations() : PasswordCostCalibrator.ARGON2_MIN_ITERATIONS;
+
+        BCryptPasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(strength);
+        // PBKDF2 hashes do not record their iteration count, so it stays fixed
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcryptEncoder,
+                "argon2", PasswordCostCalibrator.argon2(iterations),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password.hashing.algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+        log.info("Password hashing: {} (bcrypt strength {}, argon2 iterations {})", algorithm, strength, iterations);
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor, meterRegistry);
+    }
+}
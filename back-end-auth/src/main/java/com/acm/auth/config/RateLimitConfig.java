@@ -0,0 +1,54 @@
+package com.acm.auth.config;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.acm.auth.service.ratelimit.BucketSpec;
+import com.acm.auth.service.ratelimit.LocalRateLimitBackend;
+import com.acm.auth.service.ratelimit.RateLimitBackend;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    /**
+     * Buckets in node memory, so each node enforces the limits on its own. For
+     * cluster-wide limits set rate-limit.backend to anything else and provide a
+     * {@link RateLimitBackend} bean shared by all nodes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.backend", havingValue = "local", matchIfMissing = true)
+    LocalRateLimitBackend localRateLimitBackend(Clock clock,
+            @Value("${rate-limit.stripes:64}") int stripes,
+            @Value("${rate-limit.max-buckets:100000}") int maxBuckets) {
+        return new LocalRateLimitBackend(clock, stripes, maxBuckets);
+    }
+
+    /**
+     * Registered ahead of the Spring Security filter chain.
+     */
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitBackend backend, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${rate-limit.ip.per-minute:20}") int ipPerMinute,
+            @Value("${rate-limit.identifier.capacity:5}") int identifierCapacity,
+            @Value("${rate-limit.identifier.per-minute:5}") int identifierPerMinute,
+            @Value("${rate-limit.max-body-bytes:4096}") int maxBodyBytes) {
+        RateLimitFilter filter = new RateLimitFilter(backend, objectMapper, meterRegistry,
+                new BucketSpec(ipCapacity, ipPerMinute), new BucketSpec(identifierCapacity, identifierPerMinute),
+                maxBodyBytes);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
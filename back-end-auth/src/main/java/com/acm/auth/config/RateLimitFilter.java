@@ -0,0 +1,232 @@
+package com.acm.auth.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.acm.auth.dto.response.ApiResponse;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.service.ratelimit.BucketSpec;
+import com.acm.auth.service.ratelimit.RateLimitBackend;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throttles the public sign-in, sign-up, OTP and forgot-password endpoints ahead
+ * of Spring Security, so a rejected request never reaches password hashing or the
+ * database.
+ *
+ * Every POST to one of them takes a token from the bucket for (endpoint, client
+ * IP), then, if the JSON body names an account, from the bucket for (endpoint,
+ * identifier). The body is read up to max-body-bytes to find the identifier and
+ * then replayed to the controller unchanged; a larger body gets 413
+ * REQUEST_TOO_LARGE rather than skipping the identifier bucket. Rejections get
+ * 429 RATE_LIMITED with Retry-After.
+ *
+ * Endpoints are matched on the decoded, normalized path within the application,
+ * as the dispatcher resolves it, so percent-encoded or doubled-slash variants of
+ * a limited path are limited too.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Limited endpoints and the body fields naming the account, in order of preference. */
+    static final Map<String, List<String>> IDENTIFIER_FIELDS = Map.of(
+            "/api/v1/auth/sign-in", List.of("identifier", "email"),
+            "/api/v1/auth/sign-up", List.of("email"),
+            "/api/v1/auth/sign-up/verify-otp", List.of("email"),
+            "/api/v1/auth/forgot-password", List.of("email"),
+            "/api/v1/auth/forgot-password/verify-otp", List.of("email"));
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimitBackend backend;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BucketSpec perIp;
+    private final BucketSpec perIdentifier;
+    private final int maxBodyBytes;
+
+    public RateLimitFilter(RateLimitBackend backend, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            BucketSpec perIp, BucketSpec perIdentifier, int maxBodyBytes) {
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.perIp = perIp;
+        this.perIdentifier = perIdentifier;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !IDENTIFIER_FIELDS.containsKey(endpointOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = endpointOf(request);
+
+        long retryAfterMs = acquire(endpoint + "|ip|" + request.getRemoteAddr(), perIp);
+        if (retryAfterMs > 0) {
+            reject(response, endpoint, "ip", retryAfterMs);
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            meterRegistry.counter("rate.limit.rejected", "endpoint", endpoint, "key", "body-size").increment();
+            writeError(response, ErrorCode.REQUEST_TOO_LARGE);
+            return;
+        }
+        String identifier = identifierOf(body, IDENTIFIER_FIELDS.get(endpoint));
+        if (identifier != null) {
+            retryAfterMs = acquire(endpoint + "|id|" + identifier, perIdentifier);
+            if (retryAfterMs > 0) {
+                reject(response, endpoint, "identifier", retryAfterMs);
+                return;
+            }
+        }
+
+        chain.doFilter(new ReplayedBodyRequest(request, body), response);
+    }
+
+    private long acquire(String key, BucketSpec spec) {
+        try {
+            return backend.tryAcquire(key, spec);
+        } catch (RuntimeException e) {
+            // An unreachable shared backend must not take sign-in down with it
+            log.warn("Rate limit backend failed, letting request through: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private String identifierOf(byte[] body, List<String> fields) {
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+        if (json == null || !json.isObject()) {
+            return null;
+        }
+        for (String field : fields) {
+            JsonNode value = json.get(field);
+            if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                return value.asText().trim().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, String endpoint, String key, long retryAfterMs)
+            throws IOException {
+        meterRegistry.counter("rate.limit.rejected", "endpoint", endpoint, "key", key).increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000));
+        writeError(response, ErrorCode.RATE_LIMITED);
+    }
+
+    private void writeError(HttpServletResponse response, ErrorCode errorCode) throws IOException {
+        response.setStatus(errorCode.getHttpStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error(errorCode.getCode(), errorCode.getMessage()));
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        return PATH_HELPER.getPathWithinApplication(request);
+    }
+
+    /**
+     * The request with its already-read body served again from memory.
+     */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        private ReplayedBodyRequest(HttpServletRequest request, byte[] content) {
+            super(request);
+            ByteArrayInputStream body = new ByteArrayInputStream(content);
+            this.inputStream = new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return body.read(buffer, offset, length);
+                }
+
+                @Override
+                public int available() {
+                    return body.available();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return body.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so it is available at once.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+            }
+            return reader;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.acm.auth.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only side of the routing datasource. Hands out replica connections while
+ * the replica is reachable and within max-lag-seconds of the primary, and primary
+ * connections otherwise, so read-only transactions never fail or read far behind
+ * because of the replica.
+ *
+ * Lag is polled with lag-query; the value of lag-column in its first row is the
+ * lag in seconds. No row means the server is not replicating (a standalone copy)
+ * and counts as no lag; a NULL column means replication is stopped.
+ */
+@Slf4j
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    static final long UNKNOWN_LAG = -1L;
+
+    private final DataSource primary;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicLong lagSeconds = new AtomicLong(UNKNOWN_LAG);
+    private volatile boolean available;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, long maxLagSeconds, String lagQuery,
+            String lagColumn) {
+        super(replica);
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (available) {
+            try {
+                return super.getConnection();
+            } catch (SQLException e) {
+                markUnavailable("connection failed: " + e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:5000}", scheduler = "replicaScheduler")
+    public void checkLag() {
+        long lag;
+        try (Connection connection = super.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            Object value = rs.next() ? rs.getObject(lagColumn) : 0L;
+            if (value == null) {
+                markUnavailable("replication is not running");
+                return;
+            }
+            lag = ((Number) value).longValue();
+        } catch (SQLException | RuntimeException e) {
+            markUnavailable("lag check failed: " + e.getMessage());
+            return;
+        }
+
+        lagSeconds.set(lag);
+        if (lag > maxLagSeconds) {
+            setUnavailable("lag " + lag + "s exceeds " + maxLagSeconds + "s");
+        } else if (!available) {
+            available = true;
+            log.info("Read replica available (lag {}s), routing read-only transactions to it", lag);
+        }
+    }
+
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Last measured lag in seconds, or -1 when it could not be measured.
+     */
+    public long getLagSeconds() {
+        return lagSeconds.get();
+    }
+
+    private void markUnavailable(String reason) {
+        lagSeconds.set(UNKNOWN_LAG);
+        setUnavailable(reason);
+    }
+
+    private void setUnavailable(String reason) {
+        if (available) {
+            available = false;
+            log.warn("Read replica unavailable ({}), routing read-only transactions to the primary", reason);
+        }
+    }
+}
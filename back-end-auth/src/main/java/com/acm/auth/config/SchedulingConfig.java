@@ -0,0 +1,36 @@
+package com.acm.auth.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Default scheduler for the short periodic jobs (lockout flush, revocation
+     * sync, OTP wheel tick, SMTP idle eviction, ...), sized by
+     * spring.task.scheduling.pool.size. Jobs that can run long use their own
+     * scheduler through @Scheduled(scheduler = ...) so they cannot hold these
+     * threads.
+     */
+    @Bean
+    ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs the retention purge, which pauses between delete chunks, on its own
+     * thread.
+     */
+    @Bean
+    ThreadPoolTaskScheduler retentionScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("retention-purge-");
+        return scheduler;
+    }
+}
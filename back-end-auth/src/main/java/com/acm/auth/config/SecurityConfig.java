@@ -10,8 +10,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -49,6 +47,10 @@ public class SecurityConfig {
                                 .authorizeHttpRequests(auth -> auth
                                                 // Swagger endpoints
                                                 .requestMatchers(SWAGGER_ENDPOINTS).permitAll()
+                                                // Public signing keys
+                                                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                                                // Liveness/readiness probes
+                                                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                                                 // CORS preflight
                                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                                                 // Public auth endpoints
@@ -58,7 +60,8 @@ public class SecurityConfig {
                                                                 "/api/v1/auth/forgot-password",
                                                                 "/api/v1/auth/forgot-password/verify-otp",
                                                                 "/api/v1/auth/forgot-password/reset",
-                                                                "/api/v1/auth/introspect", "/api/v1/auth/refresh")
+                                                                "/api/v1/auth/introspect", "/api/v1/auth/introspect/batch",
+                                                                "/api/v1/auth/refresh")
                                                 .permitAll()
                                                 // All other requests require authentication
                                                 .anyRequest().authenticated())
@@ -84,9 +87,4 @@ public class SecurityConfig {
 
                 return jwtAuthenticationConverter;
         }
-
-        @Bean
-        PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder(10);
-        }
 }
@@ -0,0 +1,79 @@
+package com.acm.auth.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.acm.auth.dto.request.UpdateUserStatusRequest;
+import com.acm.auth.dto.response.ApiResponse;
+import com.acm.auth.dto.response.UserImportResponse;
+import com.acm.auth.dto.response.UserPageResponse;
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.service.UserService;
+import com.acm.auth.service.user.UserImportService;
+import com.acm.auth.service.user.UserListingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller for user administration.
+ * Only accessible by ADMIN users.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "User Administration", description = "User management (ADMIN only)")
+public class AdminUserController {
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserListingService userListingService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List users", description = "Keyset pagination on user id: pass the previous page's nextCursor as after")
+    public ApiResponse<UserPageResponse> list(@RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ApiResponse.success(userListingService.list(status, role, after, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export users", description = "Streams every matching user as NDJSON, one object per line")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String role) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userListingService.export(status, role));
+    }
+
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Change user status", description = "Change status (e.g. LOCKED) and revoke all of the user's tokens")
+    public ApiResponse<Void> updateStatus(@PathVariable Long id, @RequestBody @Valid UpdateUserStatusRequest request) {
+        userService.updateStatus(id, request.getStatus());
+        return ApiResponse.success(null);
+    }
+
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import users",
+            description = "CSV with a header row (username,email,password,fullName,phone,role) or NDJSON sign-up objects; "
+                    + "imported users are ACTIVE and rejected rows are listed by line")
+    public ApiResponse<UserImportResponse> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        return ApiResponse.success(
+                userImportService.importUsers(request.getInputStream(), MediaType.parseMediaType(contentType)));
+    }
+}
@@ -2,7 +2,12 @@ package com.acm.auth.controller;
 
 import java.text.ParseException;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
 
 import com.nimbusds.jose.JOSEException;
@@ -12,6 +17,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import com.acm.auth.dto.request.AuthenticationRequest;
+import com.acm.auth.dto.request.BatchIntrospectRequest;
 import com.acm.auth.dto.request.GoogleAuthRequest;
 import com.acm.auth.dto.request.IntrospectRequest;
 import com.acm.auth.dto.request.LogoutRequest;
@@ -20,12 +26,14 @@ import com.acm.auth.dto.request.SignUpRequest;
 import com.acm.auth.dto.request.SignUpVerifyOtpRequest;
 import com.acm.auth.dto.response.ApiResponse;
 import com.acm.auth.dto.response.AuthenticationResponse;
+import com.acm.auth.dto.response.BatchIntrospectResponse;
 import com.acm.auth.dto.response.IntrospectResponse;
 import com.acm.auth.dto.response.OtpChallengeResponse;
 import com.acm.auth.dto.response.SignUpVerifyOtpResponse;
 import com.acm.auth.service.AuthenticationService;
 import com.acm.auth.service.GoogleAuthService;
 import com.acm.auth.service.RegistrationService;
+import com.acm.auth.service.TokenIntrospectionService;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -36,6 +44,7 @@ public class AuthenticationController {
     private final AuthenticationService authenticationService;
     private final GoogleAuthService googleAuthService;
     private final RegistrationService registrationService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
     @PostMapping("/sign-in")
     @Operation(summary = "Sign in user", description = "Authenticate user by username OR email + password")
@@ -54,9 +63,17 @@ public class AuthenticationController {
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get current user info", description = "Returns current user profile, role, and redirect path")
-    public ApiResponse<AuthenticationResponse> getCurrentUser() {
-        var result = authenticationService.getCurrentUser();
-        return ApiResponse.success(result);
+    public ResponseEntity<ApiResponse<AuthenticationResponse>> getCurrentUser(@AuthenticationPrincipal Jwt jwt,
+            WebRequest webRequest) {
+        String eTag = authenticationService.currentUserETag(jwt);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        var result = authenticationService.getCurrentUser(jwt);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(ApiResponse.success(result));
     }
 
     @PostMapping("/sign-up")
@@ -81,6 +98,13 @@ public class AuthenticationController {
         return ApiResponse.success(result);
     }
 
+    @PostMapping("/introspect/batch")
+    @Operation(summary = "Validate tokens in batch", description = "Introspect several JWT tokens at once (RFC 7662 fields)")
+    public ApiResponse<BatchIntrospectResponse> introspectBatch(@RequestBody @Valid BatchIntrospectRequest request) {
+        var result = tokenIntrospectionService.introspect(request);
+        return ApiResponse.success(result);
+    }
+
     @PostMapping("/refresh")
     @Operation(summary = "Refresh JWT token", description = "Generate new token when current token is about to expire")
     public ApiResponse<AuthenticationResponse> refreshToken(@RequestBody RefreshRequest request)
@@ -97,4 +121,12 @@ public class AuthenticationController {
         authenticationService.logout(request);
         return ApiResponse.success(null);
     }
+
+    @PostMapping("/sign-out-all")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Sign out everywhere", description = "Invalidate every token issued to the current user")
+    public ApiResponse<Void> logoutAll() {
+        authenticationService.logoutAll();
+        return ApiResponse.success(null);
+    }
 }
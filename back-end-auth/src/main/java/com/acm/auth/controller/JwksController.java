@@ -0,0 +1,40 @@
+package com.acm.auth.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acm.auth.service.token.JwsKeyMaterial;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the public token signing keys so downstream services can verify
+ * access tokens locally instead of calling /introspect.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for local token verification")
+public class JwksController {
+
+    private final JwsKeyMaterial jwsKeyMaterial;
+
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JSON Web Key Set", description = "Public keys used to sign access tokens (RFC 7517)")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(jwsKeyMaterial.publicJwkSet().toJSONObject());
+    }
+}
@@ -0,0 +1,19 @@
+package com.acm.auth.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+}
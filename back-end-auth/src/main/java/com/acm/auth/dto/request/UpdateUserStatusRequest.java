@@ -0,0 +1,19 @@
+package com.acm.auth.dto.request;
+
+import com.acm.auth.enums.UserStatus;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateUserStatusRequest {
+
+    @NotNull(message = "Status is required")
+    private UserStatus status;
+}
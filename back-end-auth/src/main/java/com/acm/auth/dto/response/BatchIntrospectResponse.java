@@ -0,0 +1,19 @@
+package com.acm.auth.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectResponse {
+    /**
+     * One result per requested token, in request order.
+     */
+    private List<TokenIntrospection> results;
+}
@@ -0,0 +1,39 @@
+package com.acm.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Introspection result for a single token (RFC 7662 field names).
+ * Inactive tokens only carry active=false.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+    private boolean active;
+    private String scope;
+    private String username;
+    @JsonProperty("token_type")
+    private String tokenType;
+    private Long exp;
+    private Long iat;
+    private String sub;
+    private String iss;
+    private String jti;
+    @JsonProperty("user_id")
+    private Long userId;
+    private String email;
+    private String role;
+
+    public static TokenIntrospection inactive() {
+        return TokenIntrospection.builder().active(false).build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.acm.auth.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+    private int total;
+    private int imported;
+    private int failed;
+    /**
+     * Rejected rows, capped at user-import.max-reported-failures; failed has the full count.
+     */
+    private List<RowFailure> failures;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowFailure {
+        private int line;
+        private String identifier;
+        private String code;
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.acm.auth.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserResponse> items;
+    /**
+     * Pass as {@code after} to fetch the next page; null on the last page.
+     */
+    private Long nextCursor;
+}
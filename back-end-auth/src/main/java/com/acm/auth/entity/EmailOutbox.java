@@ -0,0 +1,73 @@
+package com.acm.auth.entity;
+
+import java.time.LocalDateTime;
+
+import com.acm.auth.enums.OutboxStatus;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status,next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token"),
+        @Index(name = "idx_email_outbox_finished_at", columnList = "finished_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "recipient", nullable = false, length = 320)
+    String recipient;
+
+    @Column(name = "subject", nullable = false)
+    String subject;
+
+    /**
+     * Encrypted by OutboxPayloadCipher, since OTP mails carry the code, and
+     * cleared once the message is sent or dead-lettered.
+     */
+    @Column(name = "body", columnDefinition = "longtext")
+    String body;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+
+    /**
+     * When a PENDING message is due, or when a SENDING claim lapses.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    /**
+     * Past this point the message is useless (the OTP expired) and is dead-lettered unsent.
+     */
+    @Column(name = "expires_at")
+    LocalDateTime expiresAt;
+
+    @Column(name = "finished_at")
+    LocalDateTime finishedAt;
+
+    @Column(name = "claim_token", length = 36)
+    String claimToken;
+
+    @Column(name = "last_error", length = 1000)
+    String lastError;
+}
@@ -7,7 +7,10 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 
 @Entity
-@Table(name = "invalidated_tokens")
+@Table(name = "invalidated_tokens", indexes = {
+        @Index(name = "idx_invalidated_tokens_expiry_time", columnList = "expiry_time"),
+        @Index(name = "idx_invalidated_tokens_created_at", columnList = "created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,4 +24,10 @@ public class InvalidatedToken {
 
     @Column(name = "expiry_time", nullable = false)
     Date expiryTime;
+
+    /**
+     * Set by the database on insert, so it is comparable across nodes.
+     */
+    @Column(name = "created_at", insertable = false, updatable = false)
+    Date createdAt;
 }
@@ -3,6 +3,9 @@ package com.acm.auth.entity;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.acm.auth.enums.OtpPurpose;
 
 import jakarta.persistence.*;
@@ -11,12 +14,11 @@ import lombok.experimental.FieldDefaults;
 
 @Entity
 @Table(name = "otp_verifications", indexes = {
-        @Index(name = "idx_otp_email_purpose", columnList = "email,purpose"),
-        @Index(name = "idx_otp_user_purpose", columnList = "user_id,purpose"),
+        @Index(name = "idx_otp_email_purpose_active", columnList = "email,purpose,consumed_at,created_at DESC"),
         @Index(name = "idx_otp_expires_at", columnList = "expires_at")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -24,7 +26,8 @@ public class OtpVerification {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(name = "otp_id", nullable = false)
+    @JdbcTypeCode(SqlTypes.BINARY) // binary(16) on every database, as on MySQL
+    @Column(name = "otp_id", nullable = false, length = 16)
     UUID id;
 
     @Column(name = "user_id")
@@ -61,7 +64,13 @@ public class OtpVerification {
     @Column(name = "resend_count", nullable = false)
     int resendCount;
 
-    @Lob
-    @Column(name = "metadata")
+    @Column(name = "metadata", columnDefinition = "longtext")
     String metadata;
+
+    /**
+     * Optimistic lock version. The conditional updates in OtpVerificationRepository bump it too.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    long version;
 }
@@ -10,7 +10,7 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_status_user_id", columnList = "status, user_id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,9 +43,19 @@ public class User {
     @Column(name = "status", nullable = false, length = 50)
     UserStatus status = UserStatus.ACTIVE;
 
+    /**
+     * Sign-in is refused until then after repeated wrong passwords; see failedLoginAttempts.
+     */
     @Column(name = "locked_until")
     LocalDateTime lockedUntil;
 
+    /**
+     * Wrong passwords since the last successful sign-in.
+     */
+    @Builder.Default
+    @Column(name = "failed_login_attempts", nullable = false)
+    int failedLoginAttempts = 0;
+
     @Column(name = "google_id", unique = true)
     String googleId;
 
@@ -55,4 +65,20 @@ public class User {
 
     @Column(name = "joined_date")
     LocalDateTime joinedDate;
+
+    /**
+     * Incremented to revoke every token issued to this user at once.
+     * Tokens carry the epoch they were issued under in the token_epoch claim.
+     */
+    @Builder.Default
+    @Column(name = "token_epoch", nullable = false)
+    long tokenEpoch = 0L;
+
+    /**
+     * Optimistic lock version, also used as the /me ETag. Bulk updates bump it too.
+     */
+    @Version
+    @Builder.Default
+    @Column(name = "version", nullable = false)
+    long version = 0L;
 }
@@ -0,0 +1,8 @@
+package com.acm.auth.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -14,6 +14,8 @@ public enum ErrorCode {
         // Authorization errors
         USER_LOCKED(HttpStatus.FORBIDDEN, "USER_LOCKED", "User account is locked."),
         USER_INACTIVE(HttpStatus.FORBIDDEN, "USER_INACTIVE", "User account is inactive."),
+        ACCOUNT_TEMPORARILY_LOCKED(HttpStatus.TOO_MANY_REQUESTS, "ACCOUNT_TEMPORARILY_LOCKED",
+                        "Too many failed sign-in attempts. Please try again later."),
         USER_PENDING_VERIFICATION(HttpStatus.FORBIDDEN, "USER_PENDING_VERIFICATION",
                         "User account is pending verification."),
         ROLE_MISSING(HttpStatus.FORBIDDEN, "ROLE_MISSING", "User has no assigned role."),
@@ -32,6 +34,8 @@ public enum ErrorCode {
 
         // Validation errors
         INVALID_REQUEST(HttpStatus.BAD_REQUEST, "INVALID_REQUEST", "Invalid request data."),
+        INTROSPECT_BATCH_TOO_LARGE(HttpStatus.BAD_REQUEST, "INTROSPECT_BATCH_TOO_LARGE",
+                        "Too many tokens in one introspection request."),
 
         // OTP errors
         OTP_INVALID(HttpStatus.BAD_REQUEST, "OTP_INVALID", "Invalid OTP."),
@@ -49,6 +53,11 @@ public enum ErrorCode {
         GOOGLE_AUTH_FAILED(HttpStatus.UNAUTHORIZED, "GOOGLE_AUTH_FAILED", "Google authentication failed."),
 
         // Server errors
+        RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED",
+                        "Too many requests. Please retry later."),
+        PASSWORD_HASHING_BUSY(HttpStatus.TOO_MANY_REQUESTS, "PASSWORD_HASHING_BUSY",
+                        "Too many sign-in attempts in progress. Please retry shortly."),
+        REQUEST_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "REQUEST_TOO_LARGE", "Request body is too large."),
         INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Internal server error.");
 
         private final HttpStatus httpStatus;
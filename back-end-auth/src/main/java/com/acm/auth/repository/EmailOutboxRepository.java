@@ -0,0 +1,67 @@
+package com.acm.auth.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acm.auth.entity.EmailOutbox;
+import com.acm.auth.enums.OutboxStatus;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Ids of messages due for delivery: PENDING ones past their next attempt and
+     * SENDING ones whose claim lapsed (walks idx_email_outbox_status_next_attempt).
+     */
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now "
+            + "ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") Collection<OutboxStatus> statuses, @Param("now") LocalDateTime now,
+            Limit limit);
+
+    /**
+     * Claim the given messages for one dispatcher run. Rows another node claimed
+     * since they were read no longer match and are left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :sending, e.claimToken = :token, e.nextAttemptAt = :leaseUntil "
+            + "WHERE e.id IN :ids AND e.status IN :statuses AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OutboxStatus> statuses,
+            @Param("sending") OutboxStatus sending, @Param("token") String token, @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.finishedAt = :now, e.body = NULL, e.claimToken = NULL, "
+            + "e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id IN :ids AND e.claimToken = :token")
+    int finish(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("status") OutboxStatus status,
+            @Param("now") LocalDateTime now, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.nextAttemptAt = :nextAttemptAt, e.claimToken = NULL, "
+            + "e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id AND e.claimToken = :token")
+    int reschedule(@Param("id") Long id, @Param("token") String token, @Param("pending") OutboxStatus pending,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Next chunk of sent or dead messages finished before the cutoff (walks idx_email_outbox_finished_at).
+     */
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.finishedAt < :cutoff ORDER BY e.finishedAt, e.id")
+    List<Long> findIdsFinishedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,53 @@
 package com.acm.auth.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.acm.auth.entity.InvalidatedToken;
 
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+
+    /**
+     * First revocation index load: every revocation that still matters. Read-only
+     * so it can run on the read replica.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.acm.auth.repository.RevokedTokenRef(t.id, t.expiryTime, t.createdAt) "
+            + "FROM InvalidatedToken t WHERE t.expiryTime > :cutoff")
+    List<RevokedTokenRef> findRefsExpiringAfter(@Param("cutoff") Date cutoff);
+
+    /**
+     * Incremental revocation index sync: rows written since {@code since}
+     * (walks idx_invalidated_tokens_created_at).
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.acm.auth.repository.RevokedTokenRef(t.id, t.expiryTime, t.createdAt) "
+            + "FROM InvalidatedToken t WHERE t.createdAt >= :since")
+    List<RevokedTokenRef> findRefsCreatedSince(@Param("since") Date since);
+
+    /**
+     * Return which of the given token ids have been invalidated, in a single query.
+     */
+    @Query("SELECT t.id FROM InvalidatedToken t WHERE t.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Next chunk of ids whose expiry is before the cutoff, oldest first (walks idx_invalidated_tokens_expiry_time).
+     */
+    @Query("SELECT t.id FROM InvalidatedToken t WHERE t.expiryTime < :cutoff ORDER BY t.expiryTime, t.id")
+    List<String> findIdsExpiredBefore(@Param("cutoff") Date cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM InvalidatedToken t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
 }
@@ -1,10 +1,18 @@
 package com.acm.auth.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.acm.auth.entity.OtpVerification;
 import com.acm.auth.enums.OtpPurpose;
@@ -14,4 +22,47 @@ public interface OtpVerificationRepository extends JpaRepository<OtpVerification
 
     Optional<OtpVerification> findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc(
             String email, OtpPurpose purpose);
+
+    /**
+     * Consume the live challenge whose hash matches, in one statement: a correct
+     * code is verified without reading the row first, and two requests with the
+     * same code cannot both succeed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpVerification o SET o.consumedAt = :now, o.version = o.version + 1 "
+            + "WHERE o.email = :email AND o.purpose = :purpose AND o.otpHash = :otpHash "
+            + "AND o.consumedAt IS NULL AND o.expiresAt >= :now AND o.attempts < o.maxAttempts")
+    int consumeIfMatches(@Param("email") String email, @Param("purpose") OtpPurpose purpose,
+            @Param("otpHash") String otpHash, @Param("now") LocalDateTime now);
+
+    /**
+     * Count a wrong guess unless the challenge is already used up; the guess that
+     * takes the last attempt also consumes it. consumed_at is assigned first because
+     * MySQL evaluates SET left to right with the updated values.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpVerification o SET "
+            + "o.consumedAt = CASE WHEN o.attempts + 1 >= o.maxAttempts THEN :now ELSE NULL END, "
+            + "o.attempts = o.attempts + 1, o.version = o.version + 1 "
+            + "WHERE o.id = :id AND o.consumedAt IS NULL AND o.attempts < o.maxAttempts")
+    int incrementAttempts(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpVerification o SET o.consumedAt = :now, o.version = o.version + 1 "
+            + "WHERE o.id = :id AND o.consumedAt IS NULL")
+    int consume(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Next chunk of ids that expired before the cutoff, oldest first (walks idx_otp_expires_at).
+     * Consumed codes are covered too since every code expires shortly after it is sent.
+     */
+    @Query("SELECT o.id FROM OtpVerification o WHERE o.expiresAt < :cutoff ORDER BY o.expiresAt, o.id")
+    List<UUID> findIdsExpiredBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OtpVerification o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
 }
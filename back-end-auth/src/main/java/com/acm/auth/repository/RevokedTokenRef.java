@@ -0,0 +1,9 @@
+package com.acm.auth.repository;
+
+import java.util.Date;
+
+/**
+ * The columns of an invalidated_tokens row the revocation index needs.
+ */
+public record RevokedTokenRef(String id, Date expiryTime, Date createdAt) {
+}
@@ -3,11 +3,14 @@ package com.acm.auth.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.acm.auth.entity.User;
+import com.acm.auth.enums.UserStatus;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -20,15 +23,87 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :userId")
+    Optional<User> findByIdWithRoles(@Param("userId") Long userId);
+
+    /**
+     * Find user by email with roles eagerly loaded (unique index point lookup).
+     * Always read from the primary: sign-in checks the password hash, status and
+     * lock from this row, and a lagging replica would reject fresh credentials
+     * and count them as failed attempts.
+     */
+    @Transactional
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+    Optional<User> findByEmailWithRoles(@Param("email") String email);
+
+    /**
+     * Find user by username with roles eagerly loaded (unique index point lookup).
+     * Always read from the primary: sign-in checks the password hash, status and
+     * lock from this row, and a lagging replica would reject fresh credentials
+     * and count them as failed attempts.
+     */
+    @Transactional
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findByUsernameWithRoles(@Param("username") String username);
+
     /**
      * Find user by identifier (email OR username) with roles eagerly loaded.
+     *
+     * The column is picked up front so each lookup hits one unique index instead
+     * of an OR across two. Identifiers containing '@' are tried as an email first;
+     * usernames may also contain '@', so a miss falls back to the username index.
      */
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :identifier OR u.username = :identifier")
-    Optional<User> findByIdentifierWithRoles(@Param("identifier") String identifier);
+    default Optional<User> findByIdentifierWithRoles(String identifier) {
+        if (identifier.indexOf('@') < 0) {
+            return findByUsernameWithRoles(identifier);
+        }
+        Optional<User> byEmail = findByEmailWithRoles(identifier);
+        return byEmail.isPresent() ? byEmail : findByUsernameWithRoles(identifier);
+    }
 
     /**
      * Find user by Google ID with roles eagerly loaded.
      */
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.googleId = :googleId")
     Optional<User> findByGoogleIdWithRoles(@Param("googleId") String googleId);
+
+    /**
+     * The taken name among {@code base} and {@code base<n>} with the highest n, in one
+     * range scan of the user_name index. {@code prefix} is base LIKE-escaped with '!'
+     * plus '%'; suffixes with a leading zero are not ours and are skipped.
+     */
+    @Query(value = "SELECT user_name FROM users WHERE user_name LIKE :prefix ESCAPE '!' "
+            + "AND (user_name = :base OR REGEXP_LIKE(SUBSTRING(user_name, :suffixStart), '^[1-9][0-9]{0,17}$')) "
+            + "ORDER BY CHAR_LENGTH(user_name) DESC, user_name DESC LIMIT 1", nativeQuery = true)
+    Optional<String> findHighestNumberedUsername(@Param("base") String base, @Param("prefix") String prefix,
+            @Param("suffixStart") int suffixStart);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :userId")
+    Optional<Long> findTokenEpochById(@Param("userId") Long userId);
+
+    /**
+     * Revoke every token issued to the user with a single row update.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1, u.version = u.version + 1 WHERE u.id = :userId")
+    int incrementTokenEpoch(@Param("userId") Long userId);
+
+    /**
+     * Change the user's status and revoke their tokens in the same row update.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.status = :status, u.tokenEpoch = u.tokenEpoch + 1, u.version = u.version + 1 "
+            + "WHERE u.id = :userId")
+    int updateStatusAndIncrementTokenEpoch(@Param("userId") Long userId, @Param("status") UserStatus status);
+
+    /**
+     * Replace the password hash only if it is still the one that was verified, so a
+     * concurrent password change is never overwritten by a rehash.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash, u.version = u.version + 1 "
+            + "WHERE u.id = :userId AND u.password = :oldHash")
+    int updatePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
 }
@@ -1,6 +1,10 @@
 package com.acm.auth.service;
 
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,12 +23,16 @@ import com.acm.auth.dto.request.LogoutRequest;
 import com.acm.auth.dto.request.RefreshRequest;
 import com.acm.auth.dto.response.AuthenticationResponse;
 import com.acm.auth.dto.response.IntrospectResponse;
-import com.acm.auth.entity.Role;
 import com.acm.auth.entity.User;
 import com.acm.auth.enums.UserStatus;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.user.LoginAttemptTracker;
+import com.acm.auth.service.user.UserSnapshot;
+import com.acm.auth.service.user.UserSnapshotCache;
 
 @Service
 @RequiredArgsConstructor
@@ -34,9 +42,14 @@ public class AuthenticationService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
+    private final TokenEpochService tokenEpochService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RoleRegistry roleRegistry;
+    private final LoginAttemptTracker loginAttemptTracker;
 
     /**
      * Authenticate user by identifier (email OR username) and password.
+     * Accounts locked after repeated wrong passwords are refused before the hash is checked.
      */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         String identifier = request.getEffectiveIdentifier();
@@ -54,11 +67,15 @@ public class AuthenticationService {
                     return new AppException(ErrorCode.INVALID_CREDENTIALS);
                 });
 
+        loginAttemptTracker.checkNotLocked(user);
+
         boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
         if (!authenticated) {
             log.warn("Authentication failed - invalid password for identifier: {}", identifier);
+            loginAttemptTracker.recordFailure(user);
             throw new AppException(ErrorCode.INVALID_CREDENTIALS);
         }
+        loginAttemptTracker.recordSuccess(user);
 
         // Check user status
         if (user.getStatus() != UserStatus.ACTIVE) {
@@ -79,35 +96,97 @@ public class AuthenticationService {
             throw new AppException(ErrorCode.ROLE_MISSING);
         }
 
-        String primaryRole = determinePrimaryRole(user);
-        var token = jwtTokenService.generateToken(user, primaryRole);
-        log.info("Authentication successful for identifier: {} - role: {}", identifier, primaryRole);
+        boolean rehashed = rehashIfOutdated(user, request.getPassword());
+
+        UserSnapshot snapshot = UserSnapshot.from(user);
+        if (rehashed) {
+            // The rehash bumped users.version, so this snapshot is already stale
+            userSnapshotCache.evict(user.getId());
+        } else {
+            userSnapshotCache.put(snapshot);
+        }
+
+        AuthenticationResponse response = issueToken(snapshot);
+        log.info("Authentication successful for identifier: {} - role: {}", identifier, response.getRole());
 
-        return buildAuthResponse(user, primaryRole, token);
+        return response;
     }
 
     /**
-     * Get current user info (for /api/v1/auth/me endpoint).
+     * Re-encode the password with the current algorithm and cost after a successful
+     * login. Best effort: a failure here never fails the login.
+     *
+     * @return whether the stored hash was replaced
      */
-    public AuthenticationResponse getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
+    private boolean rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return false;
+        }
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordHash(user.getId(), user.getPassword(), newHash) > 0) {
+                user.setPassword(newHash);
+                log.info("Password hash upgraded for user {}", user.getId());
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Password rehash skipped for user {}: {}", user.getId(), e.getMessage());
         }
+        return false;
+    }
 
-        Long userId = getCurrentUserId();
+    /**
+     * Get current user info (for /api/v1/auth/me endpoint).
+     * Identity and roles come from the verified token, profile fields from the
+     * cached user snapshot, so a cache hit does no database work.
+     */
+    public AuthenticationResponse getCurrentUser(Jwt jwt) {
+        UserSnapshot user = currentUserSnapshot(jwt);
+        return AuthenticationResponse.builder()
+                .userId(user.id())
+                .email(jwt.getClaimAsString("email"))
+                .username(jwt.getClaimAsString("username"))
+                .roles(rolesFromScope(jwt.getClaimAsString("scope")))
+                .role(jwt.getClaimAsString("role"))
+                .profile(toProfile(user))
+                .redirectTo(redirectPathOf(jwt))
+                .build();
+    }
+
+    /**
+     * ETag of the /me response. It changes when the user row version changes,
+     * when the token's identity claims differ, or when the role's redirect changes.
+     */
+    public String currentUserETag(Jwt jwt) {
+        UserSnapshot user = currentUserSnapshot(jwt);
+        int claims = Objects.hash(jwt.getClaim("email"), jwt.getClaim("username"), jwt.getClaim("role"),
+                jwt.getClaim("scope"), redirectPathOf(jwt));
+        return "\"" + user.id() + "-" + user.version() + "-" + Integer.toHexString(claims) + "\"";
+    }
+
+    private UserSnapshot currentUserSnapshot(Jwt jwt) {
+        Long userId = userIdOf(jwt);
         if (userId == null) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
-
-        User user = userRepository.findById(userId)
+        return userSnapshotCache.getById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+    }
 
-        user = userRepository.findByIdentifierWithRoles(user.getEmail())
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+    private String redirectPathOf(Jwt jwt) {
+        String role = jwt.getClaimAsString("role");
+        return Optional.ofNullable(role).flatMap(roleRegistry::byCode)
+                .map(RoleRegistry.RoleEntry::redirectPath)
+                .orElse(RoleRegistry.DEFAULT_REDIRECT);
+    }
 
-        String primaryRole = determinePrimaryRole(user);
-        return buildAuthResponse(user, primaryRole, null);
+    private static List<String> rolesFromScope(String scope) {
+        if (scope == null || scope.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(scope.split(" "))
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+                .toList();
     }
 
     public Long getCurrentUserId() {
@@ -118,16 +197,21 @@ public class AuthenticationService {
 
         Object principal = authentication.getPrincipal();
         if (principal instanceof Jwt jwt) {
-            Object userIdClaim = jwt.getClaim("user_id");
-            if (userIdClaim instanceof Number num) {
-                return num.longValue();
-            }
-            if (userIdClaim instanceof String str) {
-                try {
-                    return Long.parseLong(str);
-                } catch (NumberFormatException e) {
-                    log.warn("Cannot parse user_id from JWT: {}", str);
-                }
+            return userIdOf(jwt);
+        }
+        return null;
+    }
+
+    private static Long userIdOf(Jwt jwt) {
+        Object userIdClaim = jwt.getClaim("user_id");
+        if (userIdClaim instanceof Number num) {
+            return num.longValue();
+        }
+        if (userIdClaim instanceof String str) {
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                log.warn("Cannot parse user_id from JWT: {}", str);
             }
         }
         return null;
@@ -158,6 +242,17 @@ public class AuthenticationService {
         }
     }
 
+    /**
+     * Sign out everywhere: revoke every token issued to the current user.
+     */
+    public void logoutAll() {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        tokenEpochService.revokeAll(userId);
+    }
+
     public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
         var signedJWT = jwtTokenService.verifyToken(request.getToken(), true);
 
@@ -165,67 +260,49 @@ public class AuthenticationService {
         var expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
         jwtTokenService.invalidateToken(jit, expiryTime);
 
+        var userId = signedJWT.getJWTClaimsSet().getClaim("user_id");
         var email = signedJWT.getJWTClaimsSet().getClaim("email");
         String identifier = email != null ? email.toString() : signedJWT.getJWTClaimsSet().getSubject();
 
-        var user = userRepository.findByIdentifierWithRoles(identifier)
+        var user = (userId instanceof Number num
+                ? userSnapshotCache.getById(num.longValue())
+                : userSnapshotCache.getByIdentifier(identifier))
                 .orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
 
-        String primaryRole = determinePrimaryRole(user);
-        var token = jwtTokenService.generateToken(user, primaryRole);
-
-        return buildAuthResponse(user, primaryRole, token);
+        return issueToken(user);
     }
 
     /**
-     * Determines the primary role based on priority (highest priority wins).
-     * This is now configurable via database - no need to modify code for new roles.
+     * Issue an access token for the user and build the sign-in response.
      */
-    private Role determinePrimaryRoleEntity(User user) {
-        return user.getRoles().stream()
-                .max((r1, r2) -> Integer.compare(r1.getPriority(), r2.getPriority()))
-                .orElse(null);
+    public AuthenticationResponse issueToken(UserSnapshot user) {
+        RoleRegistry.RoleSet roles = roleRegistry.roleSet(user.roleIds());
+        return buildAuthResponse(user, roles, jwtTokenService.generateToken(user, roles));
     }
 
-    private String determinePrimaryRole(User user) {
-        Role primaryRole = determinePrimaryRoleEntity(user);
-        return primaryRole != null ? primaryRole.getCode() : null;
+    private AuthenticationResponse buildAuthResponse(UserSnapshot user, RoleRegistry.RoleSet roles, String token) {
+        return AuthenticationResponse.builder()
+                .token(token)
+                .tokenType("Bearer")
+                .expiresIn(jwtTokenService.getValidDuration())
+                .userId(user.id())
+                .email(user.email())
+                .username(user.username())
+                .roles(roles.codes())
+                .role(roles.primaryRole())
+                .profile(toProfile(user))
+                .redirectTo(roles.redirectPath())
+                .build();
     }
 
-    /**
-     * Gets redirect path from the primary role entity.
-     * This is now configurable via database - no need to modify code for new roles.
-     */
-    private String determineRedirectPath(User user) {
-        Role primaryRole = determinePrimaryRoleEntity(user);
-        return primaryRole != null ? primaryRole.getRedirectPath() : "/";
-    }
-
-    private AuthenticationResponse buildAuthResponse(User user, String primaryRole, String token) {
-        AuthenticationResponse.ProfileInfo profile = AuthenticationResponse.ProfileInfo.builder()
-                .id(user.getId())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .status(user.getStatus() != null ? user.getStatus().name() : null)
-                .joinedDate(user.getJoinedDate() != null ? user.getJoinedDate().toString() : null)
+    private static AuthenticationResponse.ProfileInfo toProfile(UserSnapshot user) {
+        return AuthenticationResponse.ProfileInfo.builder()
+                .id(user.id())
+                .fullName(user.fullName())
+                .email(user.email())
+                .phone(user.phone())
+                .status(user.status() != null ? user.status().name() : null)
+                .joinedDate(user.joinedDate() != null ? user.joinedDate().toString() : null)
                 .build();
-
-        var builder = AuthenticationResponse.builder()
-                .userId(user.getId())
-                .email(user.getEmail())
-                .username(user.getUsername())
-                .roles(user.getRoles().stream().map(Role::getCode).toList())
-                .role(primaryRole)
-                .profile(profile)
-                .redirectTo(determineRedirectPath(user));
-
-        if (token != null) {
-            builder = builder.token(token)
-                    .tokenType("Bearer")
-                    .expiresIn(jwtTokenService.getValidDuration());
-        }
-
-        return builder.build();
     }
 }
@@ -5,8 +5,8 @@ import java.util.Collections;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
@@ -18,13 +18,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import com.acm.auth.dto.response.AuthenticationResponse;
-import com.acm.auth.entity.Role;
 import com.acm.auth.entity.User;
 import com.acm.auth.enums.UserStatus;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.RoleRepository;
 import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.user.UserSnapshot;
+import com.acm.auth.service.user.UserSnapshotCache;
+import com.acm.auth.service.user.UsernameAllocator;
 
 @Service
 @RequiredArgsConstructor
@@ -33,7 +36,10 @@ public class GoogleAuthService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final JwtTokenService jwtTokenService;
+    private final AuthenticationService authenticationService;
+    private final RoleRegistry roleRegistry;
+    private final UserSnapshotCache userSnapshotCache;
+    private final UsernameAllocator usernameAllocator;
 
     @Value("${google.client-id}")
     private String googleClientId;
@@ -41,8 +47,9 @@ public class GoogleAuthService {
     /**
      * Authenticate user via Google ID token.
      * Verifies the token, finds or creates the user, and returns a JWT.
+     * Not transactional: each write commits on its own, and a new user is inserted
+     * in its own transaction so a username race can be retried.
      */
-    @Transactional
     public AuthenticationResponse authenticateWithGoogle(String idTokenString) {
         // 1. Verify Google ID Token
         GoogleIdToken.Payload payload = verifyGoogleToken(idTokenString);
@@ -74,12 +81,11 @@ public class GoogleAuthService {
         }
 
         // 5. Generate JWT and return response
-        String primaryRole = determinePrimaryRole(user);
-        String token = jwtTokenService.generateToken(user, primaryRole);
+        AuthenticationResponse response = authenticationService.issueToken(UserSnapshot.from(user));
 
-        log.info("Google authentication successful for: {} - role: {}", email, primaryRole);
+        log.info("Google authentication successful for: {} - role: {}", email, response.getRole());
 
-        return buildAuthResponse(user, primaryRole, token);
+        return response;
     }
 
     /**
@@ -118,7 +124,7 @@ public class GoogleAuthService {
         }
 
         // Try to find by email (existing user linking Google account)
-        var byEmail = userRepository.findByIdentifierWithRoles(email);
+        var byEmail = userRepository.findByEmailWithRoles(email);
         if (byEmail.isPresent()) {
             User existingUser = byEmail.get();
             // Link Google ID to existing account
@@ -126,7 +132,9 @@ public class GoogleAuthService {
             if (existingUser.getFullName() == null || existingUser.getFullName().isBlank()) {
                 existingUser.setFullName(fullName);
             }
-            return userRepository.save(existingUser);
+            existingUser = userRepository.save(existingUser);
+            userSnapshotCache.evict(existingUser.getId());
+            return existingUser;
         }
 
         // Create new user
@@ -135,70 +143,27 @@ public class GoogleAuthService {
 
     /**
      * Create a new user from Google account info.
+     * If the same Google account was created by a concurrent sign-in, that user is returned.
      */
     private User createGoogleUser(String googleId, String email, String fullName) {
-        Role userRole = roleRepository.findByCode("USER")
-                .orElseThrow(() -> new AppException(ErrorCode.INTERNAL_ERROR, "Default role USER not found"));
-
-        // Generate a unique username from email
-        String username = email.split("@")[0];
-        int suffix = 1;
-        while (userRepository.existsByUsername(username)) {
-            username = email.split("@")[0] + suffix;
-            suffix++;
-        }
+        Long userRoleId = roleRegistry.byCodeOrDefault(RoleRegistry.DEFAULT_ROLE).id();
 
-        User user = User.builder()
-                .googleId(googleId)
-                .email(email)
-                .username(username)
-                .fullName(fullName)
-                .password(null) // No password for Google-only users
-                .status(UserStatus.ACTIVE) // Google users are automatically verified
-                .roles(Set.of(userRole))
-                .joinedDate(LocalDateTime.now())
-                .build();
-
-        user = userRepository.save(user);
-        log.info("New Google user created: {} ({})", email, username);
+        User user;
+        try {
+            user = usernameAllocator.insertWithUniqueUsername(email.split("@")[0], username -> User.builder()
+                    .googleId(googleId)
+                    .email(email)
+                    .username(username)
+                    .fullName(fullName)
+                    .password(null) // No password for Google-only users
+                    .status(UserStatus.ACTIVE) // Google users are automatically verified
+                    .roles(Set.of(roleRepository.getReferenceById(userRoleId)))
+                    .joinedDate(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return userRepository.findByGoogleIdWithRoles(googleId).orElseThrow(() -> e);
+        }
+        log.info("New Google user created: {} ({})", email, user.getUsername());
         return user;
     }
-
-    private String determinePrimaryRole(User user) {
-        return user.getRoles().stream()
-                .max((r1, r2) -> Integer.compare(r1.getPriority(), r2.getPriority()))
-                .map(Role::getCode)
-                .orElse(null);
-    }
-
-    private String determineRedirectPath(User user) {
-        return user.getRoles().stream()
-                .max((r1, r2) -> Integer.compare(r1.getPriority(), r2.getPriority()))
-                .map(Role::getRedirectPath)
-                .orElse("/dashboard");
-    }
-
-    private AuthenticationResponse buildAuthResponse(User user, String primaryRole, String token) {
-        AuthenticationResponse.ProfileInfo profile = AuthenticationResponse.ProfileInfo.builder()
-                .id(user.getId())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .status(user.getStatus() != null ? user.getStatus().name() : null)
-                .joinedDate(user.getJoinedDate() != null ? user.getJoinedDate().toString() : null)
-                .build();
-
-        return AuthenticationResponse.builder()
-                .token(token)
-                .tokenType("Bearer")
-                .expiresIn(jwtTokenService.getValidDuration())
-                .userId(user.getId())
-                .email(user.getEmail())
-                .username(user.getUsername())
-                .roles(user.getRoles().stream().map(Role::getCode).toList())
-                .role(primaryRole)
-                .profile(profile)
-                .redirectTo(determineRedirectPath(user))
-                .build();
-    }
 }
@@ -4,43 +4,48 @@ import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.StringJoiner;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
-import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
 import lombok.extern.slf4j.Slf4j;
 import com.acm.auth.entity.InvalidatedToken;
-import com.acm.auth.entity.User;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.token.TokenRevocationIndex;
+import com.acm.auth.service.user.UserSnapshot;
 
 @Service
 @Slf4j
 public class JwtTokenService {
 
-    @Value("${jwt.signer-key}")
-    private String signerKey;
-
     @Value("${jwt.valid-duration}")
     private long validDuration;
 
     @Value("${jwt.refreshable-duration}")
     private long refreshableDuration;
 
+    private final JwsKeyMaterial jwsKeyMaterial;
     private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final TokenEpochService tokenEpochService;
 
-    public JwtTokenService(InvalidatedTokenRepository invalidatedTokenRepository) {
+    public JwtTokenService(JwsKeyMaterial jwsKeyMaterial, InvalidatedTokenRepository invalidatedTokenRepository,
+            TokenRevocationIndex tokenRevocationIndex, TokenEpochService tokenEpochService) {
+        this.jwsKeyMaterial = jwsKeyMaterial;
         this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.tokenEpochService = tokenEpochService;
     }
 
     public long getValidDuration() {
@@ -50,29 +55,23 @@ public class JwtTokenService {
     /**
      * Generate JWT token for authenticated user.
      */
-    public String generateToken(User user, String primaryRole) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
-
+    public String generateToken(UserSnapshot user, RoleRegistry.RoleSet roles) {
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getEmail())
+                .subject(user.email())
                 .issuer("auth-service")
                 .issueTime(new Date())
                 .expirationTime(new Date(Instant.now().plus(validDuration, ChronoUnit.SECONDS).toEpochMilli()))
                 .jwtID(UUID.randomUUID().toString())
-                .claim("user_id", user.getId())
-                .claim("email", user.getEmail())
-                .claim("username", user.getUsername())
-                .claim("role", primaryRole)
-                .claim("scope", buildScope(user))
+                .claim("user_id", user.id())
+                .claim("email", user.email())
+                .claim("username", user.username())
+                .claim("role", roles.primaryRole())
+                .claim("scope", roles.scope())
+                .claim(TokenEpochService.EPOCH_CLAIM, user.tokenEpoch())
                 .build();
 
-        Payload payload = new Payload(jwtClaimsSet.toJSONObject());
-
-        JWSObject jwsObject = new JWSObject(header, payload);
-
         try {
-            jwsObject.sign(new MACSigner(signerKey.getBytes()));
-            return jwsObject.serialize();
+            return jwsKeyMaterial.sign(jwtClaimsSet);
         } catch (JOSEException e) {
             log.error("Cannot create token", e);
             throw new RuntimeException(e);
@@ -83,8 +82,6 @@ public class JwtTokenService {
      * Verify JWT token.
      */
     public SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(signerKey.getBytes());
-
         SignedJWT signedJWT = SignedJWT.parse(token);
 
         Date expiryTime = isRefresh
@@ -92,19 +89,48 @@ public class JwtTokenService {
                         .plus(refreshableDuration, ChronoUnit.SECONDS).toEpochMilli())
                 : signedJWT.getJWTClaimsSet().getExpirationTime();
 
-        boolean verified = signedJWT.verify(verifier);
+        boolean verified = jwsKeyMaterial.verify(signedJWT);
 
         if (!(verified && expiryTime.after(new Date()))) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID())) {
+        String jwtId = signedJWT.getJWTClaimsSet().getJWTID();
+        // Refresh tokens are single use across nodes, so a miss in the node-local
+        // index is confirmed against invalidated_tokens
+        boolean revoked = isRefresh
+                ? tokenRevocationIndex.lookup(jwtId) == TokenRevocationIndex.Lookup.REVOKED
+                        || invalidatedTokenRepository.existsById(jwtId)
+                : tokenRevocationIndex.isRevoked(jwtId);
+        if (revoked) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        if (!tokenEpochService.isCurrent(signedJWT.getJWTClaimsSet())) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
         return signedJWT;
     }
 
+    /**
+     * Verify signature, expiry and token epoch of an access token, leaving the
+     * per-jti revocation check to callers that look up many token ids at once.
+     */
+    public Optional<SignedJWT> verifyWithoutJtiCheck(String token) {
+        try {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            Date expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+            if (expiryTime == null || !expiryTime.after(new Date()) || !jwsKeyMaterial.verify(signedJWT)
+                    || !tokenEpochService.isCurrent(signedJWT.getJWTClaimsSet())) {
+                return Optional.empty();
+            }
+            return Optional.of(signedJWT);
+        } catch (ParseException | JOSEException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Invalidate token for logout.
      */
@@ -114,15 +140,6 @@ public class JwtTokenService {
                 .expiryTime(expiryTime)
                 .build();
         invalidatedTokenRepository.save(invalidatedToken);
-    }
-
-    private String buildScope(User user) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
-
-        if (!CollectionUtils.isEmpty(user.getRoles())) {
-            user.getRoles().forEach(role -> stringJoiner.add("ROLE_" + role.getCode()));
-        }
-
-        return stringJoiner.toString();
+        tokenRevocationIndex.add(jwtId, expiryTime);
     }
 }
@@ -18,6 +18,7 @@ import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.UserRepository;
 import com.acm.auth.service.ResetTokenService.ResetTokenPayload;
 import com.acm.auth.service.otp.OtpService;
+import com.acm.auth.service.token.TokenEpochService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +32,7 @@ public class PasswordResetService {
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
     private final ResetTokenService resetTokenService;
+    private final TokenEpochService tokenEpochService;
 
     @Transactional
     public OtpChallengeResponse requestReset(ForgotPasswordRequest request) {
@@ -52,7 +54,10 @@ public class PasswordResetService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Commits on a rejected code too, so the attempt counted by OtpService sticks.
+     */
+    @Transactional(noRollbackFor = AppException.class)
     public ForgotPasswordVerifyOtpResponse verifyOtp(ForgotPasswordVerifyOtpRequest request) {
         otpService.verifyOtp(request.getEmail(), OtpPurpose.RESET_PASSWORD, request.getOtp());
 
@@ -84,6 +89,8 @@ public class PasswordResetService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
         resetTokenService.invalidateToken(payload.jwtId(), payload.expiresAt());
+        // Sessions opened with the old password must not outlive the reset
+        tokenEpochService.revokeAll(user.getId());
 
         return ResetPasswordResponse.builder()
                 .message("Password updated successfully")
@@ -22,6 +22,8 @@ import com.acm.auth.repository.RoleRepository;
 import com.acm.auth.repository.UserRepository;
 import com.acm.auth.service.otp.OtpChallenge;
 import com.acm.auth.service.otp.OtpService;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.user.UserSnapshotCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +37,8 @@ public class RegistrationService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RoleRegistry roleRegistry;
 
     @Transactional
     public OtpChallengeResponse register(SignUpRequest request) {
@@ -80,7 +84,10 @@ public class RegistrationService {
         return sendOtpChallenge(user);
     }
 
-    @Transactional
+    /**
+     * Commits on a rejected code too, so the attempt counted by OtpService sticks.
+     */
+    @Transactional(noRollbackFor = AppException.class)
     public SignUpVerifyOtpResponse verifyOtp(SignUpVerifyOtpRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
@@ -102,6 +109,7 @@ public class RegistrationService {
 
         user.setStatus(UserStatus.ACTIVE);
         userRepository.save(user);
+        userSnapshotCache.evict(user.getId());
         log.info("User verified and activated: {}", user.getEmail());
 
         return SignUpVerifyOtpResponse.builder()
@@ -121,10 +129,7 @@ public class RegistrationService {
     }
 
     private Role resolveRole(String roleCode) {
-        String resolvedCode = roleCode != null ? roleCode.toUpperCase() : "USER";
-        return roleRepository.findByCode(resolvedCode)
-                .orElseGet(() -> roleRepository.findByCode("USER")
-                        .orElseThrow(() -> new AppException(ErrorCode.INTERNAL_ERROR, "Default role not found")));
+        return roleRepository.getReferenceById(roleRegistry.byCodeOrDefault(roleCode).id());
     }
 
     private UserResponse toUserResponse(User user) {
@@ -14,13 +14,9 @@ import com.acm.auth.entity.InvalidatedToken;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenRevocationIndex;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
@@ -33,16 +29,14 @@ public class ResetTokenService {
     private static final String PURPOSE = "RESET_PASSWORD";
 
     private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final JwsKeyMaterial jwsKeyMaterial;
     private final Clock clock;
 
-    @Value("${jwt.signer-key}")
-    private String signerKey;
-
     @Value("${reset-token.valid-minutes:10}")
     private long validMinutes;
 
     public String issueToken(Long userId, String email) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
         Instant now = Instant.now(clock);
         Instant expiresAt = now.plus(validMinutes, ChronoUnit.MINUTES);
 
@@ -57,11 +51,8 @@ public class ResetTokenService {
                 .claim("email", email)
                 .build();
 
-        JWSObject jwsObject = new JWSObject(header, new Payload(claimsSet.toJSONObject()));
-
         try {
-            jwsObject.sign(new MACSigner(signerKey.getBytes()));
-            return jwsObject.serialize();
+            return jwsKeyMaterial.sign(claimsSet);
         } catch (JOSEException e) {
             throw new IllegalStateException("Failed to sign reset token", e);
         }
@@ -70,7 +61,7 @@ public class ResetTokenService {
     public ResetTokenPayload verifyToken(String token) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
-            boolean verified = signedJWT.verify(new MACVerifier(signerKey.getBytes()));
+            boolean verified = jwsKeyMaterial.verify(signedJWT);
             if (!verified) {
                 throw new AppException(ErrorCode.RESET_TOKEN_INVALID);
             }
@@ -86,7 +77,10 @@ public class ResetTokenService {
             }
 
             String jwtId = signedJWT.getJWTClaimsSet().getJWTID();
-            if (jwtId != null && invalidatedTokenRepository.existsById(jwtId)) {
+            // Single use has to hold across nodes, so a miss in the node-local index
+            // is confirmed against invalidated_tokens
+            if (jwtId != null && (tokenRevocationIndex.lookup(jwtId) == TokenRevocationIndex.Lookup.REVOKED
+                    || invalidatedTokenRepository.existsById(jwtId))) {
                 throw new AppException(ErrorCode.RESET_TOKEN_INVALID);
             }
 
@@ -124,6 +118,7 @@ public class ResetTokenService {
                 .id(jwtId)
                 .expiryTime(expiryTime)
                 .build());
+        tokenRevocationIndex.add(jwtId, expiryTime);
     }
 
     public record ResetTokenPayload(String jwtId, String email, Long userId, Date expiresAt) {
@@ -12,6 +12,7 @@ import com.acm.auth.entity.Role;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.RoleRepository;
+import com.acm.auth.service.role.RoleRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,13 +27,14 @@ import lombok.extern.slf4j.Slf4j;
 public class RoleService {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
     /**
      * Get all roles.
      */
     public List<RoleResponse> getAllRoles() {
         log.info("Fetching all roles");
-        return roleRepository.findAll().stream()
+        return roleRegistry.all().stream()
                 .map(this::toRoleResponse)
                 .toList();
     }
@@ -42,7 +44,7 @@ public class RoleService {
      */
     public RoleResponse getRoleByCode(String code) {
         log.info("Fetching role by code: {}", code);
-        Role role = roleRepository.findByCode(code.toUpperCase())
+        RoleRegistry.RoleEntry role = roleRegistry.byCode(code)
                 .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
         return toRoleResponse(role);
     }
@@ -52,7 +54,7 @@ public class RoleService {
      */
     public RoleResponse getRoleById(Long id) {
         log.info("Fetching role by id: {}", id);
-        Role role = roleRepository.findById(id)
+        RoleRegistry.RoleEntry role = roleRegistry.byId(id)
                 .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
         return toRoleResponse(role);
     }
@@ -80,6 +82,7 @@ public class RoleService {
                 .build();
 
         role = roleRepository.save(role);
+        roleRegistry.reloadAfterCommit();
         log.info("Role created successfully: {}", code);
 
         return toRoleResponse(role);
@@ -110,6 +113,7 @@ public class RoleService {
         }
 
         role = roleRepository.save(role);
+        roleRegistry.reloadAfterCommit();
         log.info("Role updated successfully: {}", code);
 
         return toRoleResponse(role);
@@ -133,6 +137,7 @@ public class RoleService {
                 .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND));
 
         roleRepository.delete(role);
+        roleRegistry.reloadAfterCommit();
         log.info("Role deleted successfully: {}", code);
     }
 
@@ -149,4 +154,15 @@ public class RoleService {
                 .redirectPath(role.getRedirectPath())
                 .build();
     }
+
+    private RoleResponse toRoleResponse(RoleRegistry.RoleEntry role) {
+        return RoleResponse.builder()
+                .id(role.id())
+                .code(role.code())
+                .name(role.name())
+                .description(role.description())
+                .priority(role.priority())
+                .redirectPath(role.redirectPath())
+                .build();
+    }
 }
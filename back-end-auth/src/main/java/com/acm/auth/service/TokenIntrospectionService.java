@@ -0,0 +1,140 @@
+package com.acm.auth.service;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.acm.auth.dto.request.BatchIntrospectRequest;
+import com.acm.auth.dto.response.BatchIntrospectResponse;
+import com.acm.auth.dto.response.TokenIntrospection;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.service.token.TokenRevocationIndex;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch token introspection for gateways.
+ * Signatures are verified in parallel and revocation is checked for all token
+ * ids at once, so a batch costs at most one database query.
+ */
+@Service
+@Slf4j
+public class TokenIntrospectionService {
+
+    private final JwtTokenService jwtTokenService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final ExecutorService introspectionExecutor;
+
+    @Value("${introspect.batch.max-tokens:100}")
+    private int maxTokens;
+
+    public TokenIntrospectionService(JwtTokenService jwtTokenService, TokenRevocationIndex tokenRevocationIndex,
+            @Qualifier("introspectionExecutor") ExecutorService introspectionExecutor) {
+        this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.introspectionExecutor = introspectionExecutor;
+    }
+
+    public BatchIntrospectResponse introspect(BatchIntrospectRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens.size() > maxTokens) {
+            throw new AppException(ErrorCode.INTROSPECT_BATCH_TOO_LARGE,
+                    "At most %d tokens can be introspected per request.".formatted(maxTokens));
+        }
+
+        List<Optional<SignedJWT>> verified = verifyAll(tokens);
+
+        List<String> jwtIds = new ArrayList<>();
+        for (Optional<SignedJWT> signedJWT : verified) {
+            signedJWT.map(this::jwtId).ifPresent(jwtIds::add);
+        }
+        Set<String> revoked = jwtIds.isEmpty() ? Set.of() : tokenRevocationIndex.revokedAmong(jwtIds);
+
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (Optional<SignedJWT> signedJWT : verified) {
+            results.add(signedJWT
+                    .filter(jwt -> jwtId(jwt) == null || !revoked.contains(jwtId(jwt)))
+                    .map(this::toIntrospection)
+                    .orElseGet(TokenIntrospection::inactive));
+        }
+        return BatchIntrospectResponse.builder().results(results).build();
+    }
+
+    private List<Optional<SignedJWT>> verifyAll(List<String> tokens) {
+        if (tokens.size() == 1) {
+            return List.of(verify(tokens.get(0)));
+        }
+        List<CompletableFuture<Optional<SignedJWT>>> futures = tokens.stream()
+                .map(token -> CompletableFuture.supplyAsync(() -> verify(token), introspectionExecutor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private Optional<SignedJWT> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return jwtTokenService.verifyWithoutJtiCheck(token);
+    }
+
+    private String jwtId(SignedJWT signedJWT) {
+        try {
+            return signedJWT.getJWTClaimsSet().getJWTID();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private TokenIntrospection toIntrospection(SignedJWT signedJWT) {
+        try {
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            return TokenIntrospection.builder()
+                    .active(true)
+                    .scope(claims.getStringClaim("scope"))
+                    .username(claims.getStringClaim("username"))
+                    .tokenType("Bearer")
+                    .exp(epochSeconds(claims.getExpirationTime()))
+                    .iat(epochSeconds(claims.getIssueTime()))
+                    .sub(claims.getSubject())
+                    .iss(claims.getIssuer())
+                    .jti(claims.getJWTID())
+                    .userId(toLong(claims.getClaim("user_id")))
+                    .email(claims.getStringClaim("email"))
+                    .role(claims.getStringClaim("role"))
+                    .build();
+        } catch (ParseException e) {
+            log.warn("Cannot read claims of verified token: {}", e.getMessage());
+            return TokenIntrospection.inactive();
+        }
+    }
+
+    private static Long epochSeconds(Date date) {
+        return date != null ? date.toInstant().getEpochSecond() : null;
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number num) {
+            return num.longValue();
+        }
+        if (value instanceof String str) {
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
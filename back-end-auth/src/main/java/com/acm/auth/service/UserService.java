@@ -18,6 +18,8 @@ import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.RoleRepository;
 import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.token.TokenEpochService;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +28,9 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
+    private final TokenEpochService tokenEpochService;
 
     @Transactional
     public UserResponse signUp(SignUpRequest request) {
@@ -46,9 +50,7 @@ public class UserService {
 
         // Find role (default to USER)
         String roleCode = request.getRole() != null ? request.getRole().toUpperCase() : "USER";
-        Role role = roleRepository.findByCode(roleCode)
-                .orElseGet(() -> roleRepository.findByCode("USER")
-                        .orElseThrow(() -> new AppException(ErrorCode.INTERNAL_ERROR, "Default role not found")));
+        Role role = roleRepository.getReferenceById(roleRegistry.byCodeOrDefault(roleCode).id());
 
         // Create user
         User user = User.builder()
@@ -75,4 +77,15 @@ public class UserService {
                 .role(roleCode)
                 .build();
     }
+
+    /**
+     * Change a user's status. Every token issued to the user is revoked in the same write.
+     */
+    @Transactional
+    public void updateStatus(Long userId, UserStatus status) {
+        if (!tokenEpochService.changeStatus(userId, status)) {
+            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        }
+        log.info("User {} status changed to {}", userId, status);
+    }
 }
@@ -0,0 +1,55 @@
+package com.acm.auth.service.impl;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acm.auth.entity.EmailOutbox;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.enums.OutboxStatus;
+import com.acm.auth.repository.EmailOutboxRepository;
+import com.acm.auth.service.EmailService;
+import com.acm.auth.service.mail.OutboxPayloadCipher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queues mail in the email_outbox table instead of talking to SMTP. The row joins
+ * the caller's transaction, so an OTP mail exists exactly when its OTP row does;
+ * OutboxDispatcher delivers it after commit. Bodies are stored encrypted (see
+ * OutboxPayloadCipher).
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxEmailService implements EmailService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SmtpEmailService smtpEmailService;
+    private final OutboxPayloadCipher outboxPayloadCipher;
+    private final Clock clock;
+
+    @Override
+    @Transactional
+    public void sendOtpEmail(String to, String otp, OtpPurpose purpose, long expiresInSeconds) {
+        SimpleMailMessage message = smtpEmailService.composeOtpEmail(to, otp, purpose, expiresInSeconds);
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(message.getSubject())
+                .body(outboxPayloadCipher.encrypt(message.getText(), to))
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .expiresAt(now.plusSeconds(expiresInSeconds))
+                .build());
+        log.debug("OTP email to {} for purpose {} queued", to, purpose);
+    }
+}
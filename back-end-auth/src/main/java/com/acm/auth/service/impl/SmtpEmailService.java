@@ -1,12 +1,25 @@
 package com.acm.auth.service.impl;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Service;
 
 import com.acm.auth.enums.OtpPurpose;
 import com.acm.auth.service.EmailService;
+import com.acm.auth.service.mail.SmtpTransportPool;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 public class SmtpEmailService implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
 
     @Value("${app.mail.from}")
     private String from;
@@ -24,19 +38,66 @@ public class SmtpEmailService implements EmailService {
     @Value("${app.mail.from-name:Auth Service}")
     private String fromName;
 
+    /**
+     * Send immediately on the calling thread. The application sends through the
+     * outbox (OutboxEmailService); this stays for direct use.
+     */
     @Override
     public void sendOtpEmail(String to, String otp, OtpPurpose purpose, long expiresInSeconds) {
-        String subject = buildSubject(purpose);
-        String body = buildBody(otp, purpose, expiresInSeconds);
+        SimpleMailMessage message = composeOtpEmail(to, otp, purpose, expiresInSeconds);
+        Exception failure = sendAll(List.of(message)).get(message);
+        if (failure != null) {
+            throw new MailSendException("Failed to send OTP email to " + to, failure);
+        }
+        log.info("OTP email sent to {} for purpose {}", to, purpose);
+    }
+
+    public SimpleMailMessage composeOtpEmail(String to, String otp, OtpPurpose purpose, long expiresInSeconds) {
+        return compose(to, buildSubject(purpose), buildBody(otp, purpose, expiresInSeconds));
+    }
 
+    public SimpleMailMessage compose(String to, String subject, String body) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setFrom(formatFrom());
         message.setSubject(subject);
         message.setText(body);
+        return message;
+    }
 
-        mailSender.send(message);
-        log.info("OTP email sent to {} for purpose {}", to, purpose);
+    /**
+     * Send the messages over pooled SMTP connections. Returns the messages that
+     * failed with their cause.
+     */
+    public Map<SimpleMailMessage, Exception> sendAll(List<SimpleMailMessage> messages) {
+        Map<SimpleMailMessage, Exception> failed = new IdentityHashMap<>();
+        List<SimpleMailMessage> prepared = new ArrayList<>(messages.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        for (SimpleMailMessage message : messages) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                prepared.add(message);
+            } catch (MessagingException | MailException e) {
+                failed.put(message, e);
+            }
+        }
+
+        Map<MimeMessage, Exception> notSent = transportPool.sendAll(mimeMessages);
+        for (int i = 0; i < mimeMessages.size(); i++) {
+            Exception cause = notSent.get(mimeMessages.get(i));
+            if (cause != null) {
+                failed.put(prepared.get(i), cause);
+            }
+        }
+        return failed;
+    }
+
+    private MimeMessage toMimeMessage(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        mimeMessage.setSentDate(new Date());
+        mimeMessage.saveChanges();
+        return mimeMessage;
     }
 
     private String buildSubject(OtpPurpose purpose) {
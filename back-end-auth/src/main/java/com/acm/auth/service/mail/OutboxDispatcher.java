@@ -0,0 +1,208 @@
+package com.acm.auth.service.mail;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.acm.auth.entity.EmailOutbox;
+import com.acm.auth.enums.OutboxStatus;
+import com.acm.auth.repository.EmailOutboxRepository;
+import com.acm.auth.service.impl.SmtpEmailService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers email_outbox rows.
+ *
+ * Each run claims up to mail.outbox.batch-size due messages under a fresh claim
+ * token, splits them across the mail.outbox.workers pool and sends every slice
+ * over a pooled SMTP connection. Failed messages are retried with exponential
+ * backoff and jitter; after mail.outbox.max-attempts, or once the message has
+ * expired, they are dead-lettered; a body that no longer decrypts counts as a
+ * failed attempt. Claims are leases, so messages held by a node
+ * that died are picked up again after mail.outbox.lease-seconds.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final List<OutboxStatus> CLAIMABLE = List.of(OutboxStatus.PENDING, OutboxStatus.SENDING);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SmtpEmailService smtpEmailService;
+    private final OutboxPayloadCipher outboxPayloadCipher;
+    private final ExecutorService outboxExecutor;
+    private final Clock clock;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${mail.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-seconds:5}")
+    private long backoffBaseSeconds;
+
+    @Value("${mail.outbox.backoff-max-seconds:900}")
+    private long backoffMaxSeconds;
+
+    @Value("${mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public OutboxDispatcher(EmailOutboxRepository emailOutboxRepository, SmtpEmailService smtpEmailService,
+            OutboxPayloadCipher outboxPayloadCipher, @Qualifier("outboxExecutor") ExecutorService outboxExecutor,
+            Clock clock, MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.smtpEmailService = smtpEmailService;
+        this.outboxPayloadCipher = outboxPayloadCipher;
+        this.outboxExecutor = outboxExecutor;
+        this.clock = clock;
+        this.sent = outcome(meterRegistry, "sent");
+        this.retried = outcome(meterRegistry, "retried");
+        this.dead = outcome(meterRegistry, "dead");
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:500}", scheduler = "outboxScheduler")
+    public void drain() {
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (dispatchBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox run stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claim and deliver one batch.
+     *
+     * @return the number of messages claimed
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> dueIds = emailOutboxRepository.findDueIds(CLAIMABLE, now, Limit.of(batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        emailOutboxRepository.claim(dueIds, CLAIMABLE, OutboxStatus.SENDING, token, now, now.plusSeconds(leaseSeconds));
+        List<EmailOutbox> claimed = emailOutboxRepository.findByClaimToken(token);
+
+        List<EmailOutbox> deliverable = new ArrayList<>(claimed.size());
+        List<Long> expired = new ArrayList<>();
+        for (EmailOutbox message : claimed) {
+            if (message.getExpiresAt() != null && message.getExpiresAt().isBefore(now)) {
+                expired.add(message.getId());
+            } else {
+                deliverable.add(message);
+            }
+        }
+        if (!expired.isEmpty()) {
+            emailOutboxRepository.finish(expired, token, OutboxStatus.DEAD, now, "Expired before delivery");
+            dead.increment(expired.size());
+        }
+
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        int sliceSize = Math.max(1, (deliverable.size() + workers - 1) / workers);
+        for (int from = 0; from < deliverable.size(); from += sliceSize) {
+            List<EmailOutbox> slice = deliverable.subList(from, Math.min(from + sliceSize, deliverable.size()));
+            slices.add(CompletableFuture.runAsync(() -> deliver(slice, token), outboxExecutor));
+        }
+        CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).join();
+        return claimed.size();
+    }
+
+    private void deliver(List<EmailOutbox> slice, String token) {
+        List<EmailOutbox> sendable = new ArrayList<>(slice.size());
+        List<SimpleMailMessage> messages = new ArrayList<>(slice.size());
+        for (EmailOutbox message : slice) {
+            try {
+                String body = outboxPayloadCipher.decrypt(message.getBody(), message.getRecipient());
+                messages.add(smtpEmailService.compose(message.getRecipient(), message.getSubject(), body));
+                sendable.add(message);
+            } catch (IllegalStateException e) {
+                fail(message, token, LocalDateTime.now(clock), e);
+            }
+        }
+        Map<SimpleMailMessage, Exception> failed = smtpEmailService.sendAll(messages);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> delivered = new ArrayList<>(sendable.size());
+        for (int i = 0; i < sendable.size(); i++) {
+            EmailOutbox message = sendable.get(i);
+            Exception error = failed.get(messages.get(i));
+            if (error == null) {
+                delivered.add(message.getId());
+            } else {
+                fail(message, token, now, error);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            emailOutboxRepository.finish(delivered, token, OutboxStatus.SENT, now, null);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private void fail(EmailOutbox message, String token, LocalDateTime now, Exception error) {
+        String reason = truncate(String.valueOf(error.getMessage()));
+        int attempt = message.getAttempts() + 1;
+        if (attempt >= maxAttempts) {
+            emailOutboxRepository.finish(List.of(message.getId()), token, OutboxStatus.DEAD, now, reason);
+            dead.increment();
+            log.warn("Email {} to {} dead-lettered after {} attempts: {}", message.getId(), message.getRecipient(),
+                    attempt, reason);
+            return;
+        }
+        emailOutboxRepository.reschedule(message.getId(), token, OutboxStatus.PENDING,
+                now.plusNanos(backoff(attempt) * 1_000_000L), reason);
+        retried.increment();
+        log.info("Email {} to {} failed (attempt {}), retrying: {}", message.getId(), message.getRecipient(), attempt,
+                reason);
+    }
+
+    /**
+     * Exponential backoff in milliseconds, capped, with up to 20% jitter so a relay
+     * outage does not turn into synchronized retry waves.
+     */
+    long backoff(int attempt) {
+        long seconds = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempt - 1, 30));
+        long millis = seconds * 1000;
+        return millis + ThreadLocalRandom.current().nextLong(millis / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mail.outbox.messages")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.acm.auth.service.mail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encrypts email_outbox bodies at rest, since OTP mails carry the code.
+ *
+ * AES-256-GCM with a key derived (SHA-256) from mail.outbox.payload-key and a
+ * random 96-bit IV per message; the recipient is bound in as associated data, so
+ * a body copied onto another row does not decrypt. Stored as "v1:" followed by
+ * base64(IV || ciphertext). Bodies without the prefix were queued before
+ * encryption and are returned as they are.
+ */
+@Component
+public class OutboxPayloadCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public OutboxPayloadCipher(@Value("${mail.outbox.payload-key}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException(
+                    "Outbox payload key is missing. Please set mail.outbox.payload-key or MAIL_OUTBOX_PAYLOAD_KEY.");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive outbox payload key", e);
+        }
+    }
+
+    public String encrypt(String body, String recipient) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(recipient.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt outbox payload", e);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the body was sealed with another key or for another recipient
+     */
+    public String decrypt(String stored, String recipient) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        try {
+            byte[] data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            cipher.updateAAD(recipient.getBytes(StandardCharsets.UTF_8));
+            return new String(cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Failed to decrypt outbox payload", e);
+        }
+    }
+}
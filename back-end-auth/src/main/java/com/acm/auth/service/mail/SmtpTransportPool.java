@@ -0,0 +1,266 @@
+package com.acm.auth.service.mail;
+
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps authenticated SMTP connections to the configured relay open between sends.
+ *
+ * At most mail.pool.max-connections connections exist at once; callers wait up to
+ * borrow-timeout-ms for one. Idle connections are reused most-recently-used first,
+ * so a quiet period lets the extra ones age out: they are closed after max-idle-ms,
+ * and a connection is retired after max-messages-per-connection messages since
+ * relays cap how many they accept per session. A connection idle for longer than
+ * validate-after-idle-ms is checked with NOOP before reuse.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final int maxConnections;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMs;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+    private final Counter opened;
+    private final Timer borrowWait;
+    private final Timer sent;
+    private final Timer rejected;
+    private final Timer failed;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, MeterRegistry meterRegistry,
+            @Value("${mail.pool.max-connections:4}") int maxConnections,
+            @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${mail.pool.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${mail.pool.validate-after-idle-ms:2000}") long validateAfterIdleMs,
+            @Value("${mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.maxIdleMs = maxIdleMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(this.maxConnections, true);
+        this.opened = Counter.builder("mail.smtp.pool.opened").register(meterRegistry);
+        this.borrowWait = Timer.builder("mail.smtp.pool.wait").register(meterRegistry);
+        this.sent = sendTimer(meterRegistry, "sent");
+        this.rejected = sendTimer(meterRegistry, "rejected");
+        this.failed = sendTimer(meterRegistry, "error");
+        Gauge.builder("mail.smtp.pool.connections", this, SmtpTransportPool::getActive).tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.connections", idle, Deque::size).tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.utilization", this, pool -> (double) pool.getActive() / pool.maxConnections)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send the messages over pooled connections, several per connection.
+     * Recipients the relay rejects fail only their message; a message that fails
+     * because the connection broke is retried once on a fresh one.
+     *
+     * @return the messages that could not be sent, with their cause
+     */
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        int next = 0;
+        int retried = -1;
+        while (next < messages.size()) {
+            Connection connection;
+            try {
+                connection = borrow();
+            } catch (MessagingException e) {
+                messages.subList(next, messages.size()).forEach(message -> failures.put(message, e));
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                messages.subList(next, messages.size()).forEach(message -> failures.put(message, e));
+                break;
+            }
+
+            boolean healthy = true;
+            try {
+                while (next < messages.size() && connection.sent < maxMessagesPerConnection) {
+                    MimeMessage message = messages.get(next);
+                    long startedAt = System.nanoTime();
+                    try {
+                        connection.transport.sendMessage(message, message.getAllRecipients());
+                        sent.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        connection.sent++;
+                        next++;
+                    } catch (SendFailedException e) {
+                        rejected.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        failures.put(message, e);
+                        next++;
+                    } catch (MessagingException | IllegalStateException e) {
+                        failed.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        healthy = false;
+                        if (retried == next) {
+                            failures.put(message, e);
+                            next++;
+                        } else {
+                            retried = next;
+                            log.debug("SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                release(connection, healthy);
+            }
+        }
+        return failures;
+    }
+
+    Connection borrow() throws MessagingException, InterruptedException {
+        long startedAt = System.nanoTime();
+        boolean acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        borrowWait.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new MessagingException("No SMTP connection available within " + borrowTimeoutMs + " ms");
+        }
+        try {
+            Connection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (isReusable(connection, System.currentTimeMillis())) {
+                    return connection;
+                }
+                discard(connection);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(Connection connection, boolean healthy) {
+        connection.lastUsed = System.currentTimeMillis();
+        if (healthy && connection.sent < maxMessagesPerConnection) {
+            idle.offerFirst(connection);
+        } else {
+            discard(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Close connections that have been idle longer than max-idle-ms. The least
+     * recently used ones sit at the tail of the idle deque.
+     */
+    @Scheduled(fixedDelayString = "${mail.pool.evict-interval-ms:10000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        Connection connection;
+        while ((connection = idle.peekLast()) != null && now - connection.lastUsed >= maxIdleMs) {
+            if (idle.removeLastOccurrence(connection)) {
+                discard(connection);
+            }
+        }
+    }
+
+    public int getActive() {
+        return open.get() - idle.size();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public double getOpened() {
+        return opened.count();
+    }
+
+    @PreDestroy
+    public void close() {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    private boolean isReusable(Connection connection, long now) {
+        long idleMs = now - connection.lastUsed;
+        if (idleMs >= maxIdleMs) {
+            return false;
+        }
+        return idleMs < validateAfterIdleMs || connection.transport.isConnected();
+    }
+
+    private Connection connect() throws MessagingException {
+        // Same defaults as JavaMailSenderImpl: session protocol or smtp, and empty
+        // credentials mean no AUTH
+        Session session = mailSender.getSession();
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+        }
+        Transport transport = session.getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        opened.increment();
+        open.incrementAndGet();
+        return new Connection(transport);
+    }
+
+    private void discard(Connection connection) {
+        open.decrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Closing SMTP connection failed: {}", e.getMessage());
+        }
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("mail.smtp.send")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    static final class Connection {
+
+        final Transport transport;
+        int sent;
+        volatile long lastUsed;
+
+        Connection(Transport transport) {
+            this.transport = transport;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.acm.auth.service.maintenance;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.repository.EmailOutboxRepository;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.OtpVerificationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes rows that can no longer affect authentication.
+ *
+ * invalidated_tokens rows are kept until the token's refresh window has passed
+ * (expiry plus jwt.refreshable-duration), otp_verifications rows until
+ * retention.otp-grace-hours after they expired, and sent or dead email_outbox
+ * rows for retention.outbox-hours after they finished. Rows are removed oldest first in
+ * chunks read through the expiry indexes and deleted by primary key, each chunk
+ * in its own short transaction with a pause in between, so a backlog never
+ * turns into one long-running delete holding locks. The pauses run on the
+ * dedicated retentionScheduler thread, not the shared task scheduler.
+ */
+@Component
+@Slf4j
+public class RetentionPurgeJob {
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final OtpVerificationRepository otpVerificationRepository;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${jwt.refreshable-duration}")
+    private long refreshableDuration;
+
+    @Value("${retention.otp-grace-hours:24}")
+    private long otpGraceHours;
+
+    @Value("${retention.outbox-hours:24}")
+    private long outboxHours;
+
+    @Value("${retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${retention.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Value("${retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    public RetentionPurgeJob(InvalidatedTokenRepository invalidatedTokenRepository,
+            OtpVerificationRepository otpVerificationRepository,
+            EmailOutboxRepository emailOutboxRepository,
+            TransactionTemplate transactionTemplate,
+            Clock clock) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.otpVerificationRepository = otpVerificationRepository;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${retention.purge-interval-ms:300000}",
+            initialDelayString = "${retention.initial-delay-ms:60000}", scheduler = "retentionScheduler")
+    public void run() {
+        purgeInvalidatedTokens();
+        purgeOtpVerifications();
+        purgeEmailOutbox();
+    }
+
+    public PurgeResult purgeInvalidatedTokens() {
+        Date cutoff = new Date(clock.millis() - TimeUnit.SECONDS.toMillis(refreshableDuration));
+        return purge("invalidated_tokens",
+                () -> invalidatedTokenRepository.findIdsExpiredBefore(cutoff, Limit.of(chunkSize)),
+                invalidatedTokenRepository::deleteByIdIn);
+    }
+
+    public PurgeResult purgeOtpVerifications() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusHours(otpGraceHours);
+        return purge("otp_verifications",
+                () -> otpVerificationRepository.findIdsExpiredBefore(cutoff, Limit.of(chunkSize)),
+                otpVerificationRepository::deleteByIdIn);
+    }
+
+    public PurgeResult purgeEmailOutbox() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusHours(outboxHours);
+        return purge("email_outbox",
+                () -> emailOutboxRepository.findIdsFinishedBefore(cutoff, Limit.of(chunkSize)),
+                emailOutboxRepository::deleteByIdIn);
+    }
+
+    private <ID> PurgeResult purge(String table, Supplier<List<ID>> nextChunk, Function<List<ID>, Integer> delete) {
+        long startedAt = System.nanoTime();
+        long deleted = 0;
+        int chunks = 0;
+        try {
+            while (chunks < maxChunksPerRun) {
+                Integer removed = transactionTemplate.execute(status -> {
+                    List<ID> ids = nextChunk.get();
+                    return ids.isEmpty() ? 0 : delete.apply(ids);
+                });
+                if (removed == null || removed == 0) {
+                    break;
+                }
+                deleted += removed;
+                chunks++;
+                if (removed < chunkSize) {
+                    break;
+                }
+                Thread.sleep(chunkPauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Retention purge of {} stopped after {} rows: {}", table, deleted, e.getMessage());
+        }
+
+        PurgeResult result = new PurgeResult(table, deleted, chunks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        if (deleted > 0) {
+            log.info("Retention purge removed {} rows from {} in {} chunk(s), {} ms",
+                    result.deleted(), table, result.chunks(), result.durationMs());
+        } else {
+            log.debug("Retention purge found nothing to remove from {}", table);
+        }
+        return result;
+    }
+
+    public record PurgeResult(String table, long deleted, int chunks, long durationMs) {
+    }
+}
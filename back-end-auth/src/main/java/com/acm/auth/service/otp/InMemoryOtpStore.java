@@ -0,0 +1,241 @@
+package com.acm.auth.service.otp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OTP challenges held in memory on the node that sent them; for a single node or
+ * sticky routing by email.
+ *
+ * Challenges are spread over independently locked shards. Each shard drops its
+ * challenges through a {@link TimingWheel} once they have been expired for
+ * {@code expiredRetention}, so a late guess still gets OTP_EXPIRED rather than
+ * OTP_INVALID, and nothing ever scans the live set. Consumed challenges are
+ * dropped at once.
+ *
+ * With a {@code writeThrough} store every change is also written there (outside
+ * the shard lock), and a challenge missing from memory, e.g. after a restart, is
+ * looked up there.
+ */
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final long expiredRetentionMs;
+    private final OtpStore writeThrough;
+
+    public InMemoryOtpStore(Clock clock, int shardCount, Duration tick, Duration expiredRetention,
+            OtpStore writeThrough) {
+        int count = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new Shard[count];
+        this.shardMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(new TimingWheel<>(tick.toMillis(), 64, 4, clock.millis()));
+        }
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.expiredRetentionMs = expiredRetention.toMillis();
+        this.writeThrough = writeThrough;
+    }
+
+    @Override
+    public Optional<OtpVerification> findActive(String email, OtpPurpose purpose) {
+        Key key = new Key(email, purpose);
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Entry entry = shard.entries.get(key);
+            if (entry != null) {
+                return Optional.of(copy(entry.challenge));
+            }
+        }
+        if (writeThrough == null) {
+            return Optional.empty();
+        }
+        Optional<OtpVerification> stored = writeThrough.findActive(email, purpose);
+        stored.ifPresent(challenge -> {
+            synchronized (shard) {
+                shard.entries.computeIfAbsent(key, k -> track(shard, k, copy(challenge)));
+            }
+        });
+        return stored;
+    }
+
+    @Override
+    public void replace(Optional<OtpVerification> previous, OtpVerification next) {
+        if (writeThrough != null) {
+            writeThrough.replace(previous, next);
+        } else {
+            previous.ifPresent(active -> active.setConsumedAt(next.getCreatedAt()));
+            if (next.getId() == null) {
+                next.setId(UUID.randomUUID());
+            }
+        }
+        Key key = new Key(next.getEmail(), next.getPurpose());
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Entry replaced = shard.entries.put(key, track(shard, key, copy(next)));
+            if (replaced != null) {
+                shard.wheel.cancel(replaced.timeout);
+            }
+        }
+    }
+
+    @Override
+    public boolean consumeIfMatches(String email, OtpPurpose purpose, String otpHash, LocalDateTime now) {
+        Key key = new Key(email, purpose);
+        Shard shard = shardFor(key);
+        Entry consumed = null;
+        boolean known;
+        synchronized (shard) {
+            Entry entry = shard.entries.get(key);
+            known = entry != null;
+            if (known && isLive(entry.challenge, now) && otpHash != null && MessageDigest.isEqual(
+                    otpHash.getBytes(StandardCharsets.UTF_8),
+                    entry.challenge.getOtpHash().getBytes(StandardCharsets.UTF_8))) {
+                shard.entries.remove(key);
+                shard.wheel.cancel(entry.timeout);
+                consumed = entry;
+            }
+        }
+        if (writeThrough == null) {
+            return consumed != null;
+        }
+        if (consumed != null) {
+            return writeThrough.consume(consumed.challenge, now);
+        }
+        // Not in memory, e.g. sent before a restart
+        return !known && writeThrough.consumeIfMatches(email, purpose, otpHash, now);
+    }
+
+    @Override
+    public int recordFailedAttempt(OtpVerification challenge, LocalDateTime now) {
+        Key key = new Key(challenge.getEmail(), challenge.getPurpose());
+        Shard shard = shardFor(key);
+        int attempts;
+        synchronized (shard) {
+            Entry entry = shard.entries.get(key);
+            if (entry == null || !entry.challenge.getId().equals(challenge.getId())
+                    || entry.challenge.getAttempts() >= entry.challenge.getMaxAttempts()) {
+                return -1;
+            }
+            // Counted on the stored copy so concurrent guesses never undercount
+            attempts = entry.challenge.getAttempts() + 1;
+            entry.challenge.setAttempts(attempts);
+            if (attempts >= entry.challenge.getMaxAttempts()) {
+                shard.entries.remove(key);
+                shard.wheel.cancel(entry.timeout);
+            }
+        }
+        if (writeThrough != null) {
+            writeThrough.recordFailedAttempt(challenge, now);
+        }
+        challenge.setAttempts(attempts);
+        if (attempts >= challenge.getMaxAttempts()) {
+            challenge.setConsumedAt(now);
+        }
+        return attempts;
+    }
+
+    @Override
+    public boolean consume(OtpVerification challenge, LocalDateTime consumedAt) {
+        Key key = new Key(challenge.getEmail(), challenge.getPurpose());
+        Shard shard = shardFor(key);
+        boolean removed = false;
+        synchronized (shard) {
+            Entry entry = shard.entries.get(key);
+            if (entry != null && entry.challenge.getId().equals(challenge.getId())) {
+                shard.entries.remove(key);
+                shard.wheel.cancel(entry.timeout);
+                removed = true;
+            }
+        }
+        if (writeThrough != null) {
+            return writeThrough.consume(challenge, consumedAt);
+        }
+        if (removed) {
+            challenge.setConsumedAt(consumedAt);
+        }
+        return removed;
+    }
+
+    /**
+     * Advance every shard's wheel, dropping challenges whose retention ran out.
+     */
+    @Scheduled(fixedDelayString = "${otp.memory.tick-ms:1000}")
+    public void expire() {
+        long now = clock.millis();
+        int dropped = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                int before = shard.entries.size();
+                shard.wheel.advance(now, shard.entries::remove);
+                dropped += before - shard.entries.size();
+            }
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} expired OTP challenges", dropped);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private static boolean isLive(OtpVerification challenge, LocalDateTime now) {
+        return !challenge.getExpiresAt().isBefore(now) && challenge.getAttempts() < challenge.getMaxAttempts();
+    }
+
+    private Entry track(Shard shard, Key key, OtpVerification challenge) {
+        long dropAtMs = challenge.getExpiresAt().atZone(zone).toInstant().toEpochMilli() + expiredRetentionMs;
+        return new Entry(challenge, shard.wheel.schedule(key, Math.max(dropAtMs, clock.millis() + 1)));
+    }
+
+    private Shard shardFor(Key key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private static OtpVerification copy(OtpVerification challenge) {
+        return challenge.toBuilder().build();
+    }
+
+    private record Key(String email, OtpPurpose purpose) {
+    }
+
+    private record Entry(OtpVerification challenge, TimingWheel.Timeout<Key> timeout) {
+    }
+
+    private static final class Shard {
+
+        private final Map<Key, Entry> entries = new HashMap<>();
+        private final TimingWheel<Key> wheel;
+
+        private Shard(TimingWheel<Key> wheel) {
+            this.wheel = wheel;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.acm.auth.service.otp;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.repository.OtpVerificationRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * OTP challenges in otp_verifications, shared by every node. Every change after the
+ * insert is a single conditional UPDATE, so concurrent guesses are neither lost nor
+ * able to use a challenge twice. Challenges are handed out detached so the changes
+ * applied to them are never flushed back over those updates.
+ */
+@RequiredArgsConstructor
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpVerificationRepository otpVerificationRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<OtpVerification> findActive(String email, OtpPurpose purpose) {
+        Optional<OtpVerification> active = otpVerificationRepository
+                .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc(email, purpose);
+        active.ifPresent(entityManager::detach);
+        return active;
+    }
+
+    @Override
+    public void replace(Optional<OtpVerification> previous, OtpVerification next) {
+        previous.ifPresent(active -> consume(active, next.getCreatedAt()));
+        otpVerificationRepository.save(next);
+    }
+
+    @Override
+    public boolean consumeIfMatches(String email, OtpPurpose purpose, String otpHash, LocalDateTime now) {
+        return otpVerificationRepository.consumeIfMatches(email, purpose, otpHash, now) > 0;
+    }
+
+    @Override
+    public int recordFailedAttempt(OtpVerification challenge, LocalDateTime now) {
+        if (otpVerificationRepository.incrementAttempts(challenge.getId(), now) == 0) {
+            return -1;
+        }
+        int attempts = challenge.getAttempts() + 1;
+        challenge.setAttempts(attempts);
+        if (attempts >= challenge.getMaxAttempts()) {
+            challenge.setConsumedAt(now);
+        }
+        return attempts;
+    }
+
+    @Override
+    public boolean consume(OtpVerification challenge, LocalDateTime consumedAt) {
+        if (otpVerificationRepository.consume(challenge.getId(), consumedAt) == 0) {
+            return false;
+        }
+        challenge.setConsumedAt(consumedAt);
+        return true;
+    }
+}
@@ -12,7 +12,6 @@ import com.acm.auth.entity.OtpVerification;
 import com.acm.auth.enums.OtpPurpose;
 import com.acm.auth.exception.AppException;
 import com.acm.auth.exception.ErrorCode;
-import com.acm.auth.repository.OtpVerificationRepository;
 import com.acm.auth.service.EmailService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,7 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OtpService {
 
-    private final OtpVerificationRepository otpVerificationRepository;
+    private final OtpStore otpStore;
     private final OtpGenerator otpGenerator;
     private final OtpHasher otpHasher;
     private final EmailService emailService;
@@ -42,8 +41,7 @@ public class OtpService {
     public OtpChallenge sendOtp(String email, Long userId, OtpPurpose purpose, boolean enforceCooldown) {
         LocalDateTime now = LocalDateTime.now(clock);
 
-        var existing = otpVerificationRepository
-                .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc(email, purpose);
+        var existing = otpStore.findActive(email, purpose);
 
         if (existing.isPresent()) {
             OtpVerification active = existing.get();
@@ -53,9 +51,6 @@ public class OtpService {
                     throw new AppException(ErrorCode.OTP_RESEND_TOO_SOON);
                 }
             }
-
-            active.setConsumedAt(now);
-            otpVerificationRepository.save(active);
         }
 
         String otp = otpGenerator.generate();
@@ -77,47 +72,56 @@ public class OtpService {
                 .resendCount(resendCount)
                 .build();
 
-        otpVerificationRepository.save(verification);
+        otpStore.replace(existing, verification);
         emailService.sendOtpEmail(email, otp, purpose, ChronoUnit.SECONDS.between(now, expiresAt));
 
         return new OtpChallenge(maskEmail(email), ChronoUnit.SECONDS.between(now, expiresAt));
     }
 
-    @Transactional
+    /**
+     * A correct code is checked and consumed by one conditional update. Only when
+     * that misses is the challenge read to tell a wrong code from an expired or
+     * used-up one.
+     *
+     * Rejections are thrown as AppException without rolling back, so counted
+     * attempts and consumed challenges are committed; callers that wrap this in
+     * their own transaction need noRollbackFor = AppException.class too.
+     */
+    @Transactional(noRollbackFor = AppException.class)
     public void verifyOtp(String email, OtpPurpose purpose, String otp) {
         LocalDateTime now = LocalDateTime.now(clock);
 
-        OtpVerification verification = otpVerificationRepository
-                .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc(email, purpose)
+        if (otpStore.consumeIfMatches(email, purpose, otpHasher.hash(otp), now)) {
+            log.info("OTP verified successfully for email {} and purpose {}", email, purpose);
+            return;
+        }
+
+        OtpVerification verification = otpStore.findActive(email, purpose)
                 .orElseThrow(() -> new AppException(ErrorCode.OTP_INVALID));
 
         if (verification.getExpiresAt() != null && verification.getExpiresAt().isBefore(now)) {
-            verification.setConsumedAt(now);
-            otpVerificationRepository.save(verification);
+            otpStore.consume(verification, now);
             throw new AppException(ErrorCode.OTP_EXPIRED);
         }
 
         if (verification.getAttempts() >= verification.getMaxAttempts()) {
-            verification.setConsumedAt(now);
-            otpVerificationRepository.save(verification);
+            otpStore.consume(verification, now);
             throw new AppException(ErrorCode.OTP_TOO_MANY_ATTEMPTS);
         }
 
         boolean match = otpHasher.matches(otp, verification.getOtpHash());
         if (!match) {
-            int attempts = verification.getAttempts() + 1;
-            verification.setAttempts(attempts);
-            if (attempts >= verification.getMaxAttempts()) {
-                verification.setConsumedAt(now);
-                otpVerificationRepository.save(verification);
+            int attempts = otpStore.recordFailedAttempt(verification, now);
+            if (attempts < 0 || attempts >= verification.getMaxAttempts()) {
                 throw new AppException(ErrorCode.OTP_TOO_MANY_ATTEMPTS);
             }
-            otpVerificationRepository.save(verification);
             throw new AppException(ErrorCode.OTP_INVALID);
         }
 
-        verification.setConsumedAt(now);
-        otpVerificationRepository.save(verification);
+        // Matches but was not live a moment ago: consumed by a concurrent request
+        if (!otpStore.consume(verification, now)) {
+            throw new AppException(ErrorCode.OTP_INVALID);
+        }
         log.info("OTP verified successfully for email {} and purpose {}", email, purpose);
     }
 
@@ -0,0 +1,50 @@
+package com.acm.auth.service.otp;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+
+/**
+ * Where OTP challenges live between sending and verification.
+ *
+ * otp.store=jpa (default) keeps them in otp_verifications and works with any
+ * number of nodes; otp.store=memory keeps them on the node that sent them.
+ * Changes go through the store methods, which also apply them to the object passed in.
+ */
+public interface OtpStore {
+
+    /**
+     * The latest unconsumed challenge for the email and purpose.
+     */
+    Optional<OtpVerification> findActive(String email, OtpPurpose purpose);
+
+    /**
+     * Store a new challenge, consuming the one it replaces (if any).
+     */
+    void replace(Optional<OtpVerification> previous, OtpVerification next);
+
+    /**
+     * Consume the active challenge if it is live (not expired, attempts left) and
+     * its hash is {@code otpHash}.
+     *
+     * @return true if this call consumed it
+     */
+    boolean consumeIfMatches(String email, OtpPurpose purpose, String otpHash, LocalDateTime now);
+
+    /**
+     * Count a wrong guess. The guess that takes the last attempt also consumes the challenge.
+     *
+     * @return the number of attempts including this one, or -1 if the challenge was
+     *         already consumed or out of attempts
+     */
+    int recordFailedAttempt(OtpVerification challenge, LocalDateTime now);
+
+    /**
+     * Mark the challenge used (verified, expired or out of attempts).
+     *
+     * @return true if this call consumed it, false if it already was
+     */
+    boolean consume(OtpVerification challenge, LocalDateTime consumedAt);
+}
@@ -0,0 +1,172 @@
+package com.acm.auth.service.otp;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedule, cancel and expire in O(1) per timer, with
+ * no scan over live entries.
+ *
+ * Level 0 has one slot per tick; each level above has slots as wide as a full turn
+ * of the level below. A timer is filed in the lowest level whose range covers its
+ * deadline; when a lower level wraps, the matching slot of the level above is
+ * cascaded down. Timers fire on the first tick at or after their deadline, so at
+ * most one tick late and never early. Deadlines beyond the top level are parked in
+ * its furthest slot and re-filed when it comes round.
+ *
+ * Not thread-safe; the owner serializes access.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final Slot<T>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1 || levelCount < 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        this.tickMs = tickMs;
+        this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+        this.wheelMask = wheelSize - 1;
+        this.levels = new Slot[levelCount][wheelSize];
+        for (Slot<T>[] level : levels) {
+            for (int i = 0; i < wheelSize; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+    }
+
+    /**
+     * Schedule {@code item} to expire at {@code deadlineMs}.
+     *
+     * @return the handle for {@link #cancel}, or null if the deadline has already passed
+     */
+    public Timeout<T> schedule(T item, long deadlineMs) {
+        long deadlineTick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+        if (deadlineTick <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        file(timeout);
+        size++;
+        return timeout;
+    }
+
+    public void cancel(Timeout<T> timeout) {
+        if (timeout != null && timeout.slot != null) {
+            timeout.slot.remove(timeout);
+            size--;
+        }
+    }
+
+    /**
+     * Move the wheel up to {@code nowMs}, handing every timer that fell due to {@code expired}.
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    cascade(levels[level][(int) (currentTick >>> (wheelBits * level)) & wheelMask]);
+                }
+            }
+            Slot<T> slot = levels[0][(int) currentTick & wheelMask];
+            Timeout<T> timeout;
+            while ((timeout = slot.poll()) != null) {
+                if (timeout.deadlineTick <= currentTick) {
+                    size--;
+                    expired.accept(timeout.item);
+                } else {
+                    file(timeout);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Slot<T> slot) {
+        Timeout<T> timeout;
+        while ((timeout = slot.poll()) != null) {
+            file(timeout);
+        }
+    }
+
+    private void file(Timeout<T> timeout) {
+        long delta = Math.max(0, timeout.deadlineTick - currentTick);
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << (wheelBits * (level + 1))) {
+            level++;
+        }
+        long tick = timeout.deadlineTick;
+        long maxDelta = (1L << (wheelBits * (level + 1))) - 1;
+        if (delta > maxDelta) {
+            // Beyond the top level: park in its furthest slot and re-file from there
+            tick = currentTick + maxDelta;
+        }
+        levels[level][(int) (tick >>> (wheelBits * level)) & wheelMask].add(timeout);
+    }
+
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T item() {
+            return item;
+        }
+    }
+
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.acm.auth.service.password;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks hashing cost parameters that fit a latency budget on the current host.
+ *
+ * Each algorithm is timed once at its floor cost and the result is extrapolated:
+ * BCrypt time doubles per strength step, Argon2 time grows linearly with
+ * iterations. Costs never go below the floor, so a slow host keeps today's
+ * security level rather than weakening it.
+ */
+@Slf4j
+public class PasswordCostCalibrator {
+
+    public static final int BCRYPT_MIN_STRENGTH = 10;
+    public static final int BCRYPT_MAX_STRENGTH = 16;
+    public static final int ARGON2_MIN_ITERATIONS = 2;
+    public static final int ARGON2_MAX_ITERATIONS = 10;
+    public static final int ARGON2_MEMORY_KIB = 19 * 1024;
+
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word!";
+
+    private final Duration budget;
+
+    public PasswordCostCalibrator(Duration budget) {
+        this.budget = budget;
+    }
+
+    public static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KIB, iterations);
+    }
+
+    /**
+     * Highest BCrypt strength whose hash time stays within the budget.
+     */
+    public int bcryptStrength() {
+        long floorNanos = measure(BCryptPasswordEncoder::new, BCRYPT_MIN_STRENGTH);
+        int strength = BCRYPT_MIN_STRENGTH;
+        while (strength < BCRYPT_MAX_STRENGTH && (floorNanos << (strength + 1 - BCRYPT_MIN_STRENGTH)) <= budget.toNanos()) {
+            strength++;
+        }
+        log.info("BCrypt calibrated to strength {} (strength {} took {} ms, budget {} ms)",
+                strength, BCRYPT_MIN_STRENGTH, floorNanos / 1_000_000, budget.toMillis());
+        return strength;
+    }
+
+    /**
+     * Highest Argon2id iteration count whose hash time stays within the budget.
+     */
+    public int argon2Iterations() {
+        long perIterationNanos = measure(PasswordCostCalibrator::argon2, ARGON2_MIN_ITERATIONS) / ARGON2_MIN_ITERATIONS;
+        long fitting = perIterationNanos > 0 ? budget.toNanos() / perIterationNanos : ARGON2_MAX_ITERATIONS;
+        int iterations = (int) Math.max(ARGON2_MIN_ITERATIONS, Math.min(ARGON2_MAX_ITERATIONS, fitting));
+        log.info("Argon2id calibrated to {} iterations at {} KiB ({} ms per iteration, budget {} ms)",
+                iterations, ARGON2_MEMORY_KIB, perIterationNanos / 1_000_000, budget.toMillis());
+        return iterations;
+    }
+
+    /**
+     * Best of two runs, so class loading and JIT warm-up on the first run do not count.
+     */
+    private static long measure(IntFunction<PasswordEncoder> factory, int cost) {
+        PasswordEncoder encoder = factory.apply(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
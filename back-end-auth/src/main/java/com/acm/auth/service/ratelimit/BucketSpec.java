@@ -0,0 +1,26 @@
+package com.acm.auth.service.ratelimit;
+
+/**
+ * A token bucket holding up to {@code capacity} requests, refilled evenly at
+ * {@code perMinute} tokens a minute.
+ */
+public record BucketSpec(int capacity, int perMinute) {
+
+    public BucketSpec {
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalArgumentException("capacity and perMinute must be positive");
+        }
+    }
+
+    double tokensPerMs() {
+        return perMinute / 60_000d;
+    }
+
+    /**
+     * How long an untouched bucket takes to fill up from empty; past that it is
+     * indistinguishable from a new one.
+     */
+    long fullAfterMs() {
+        return (long) Math.ceil(capacity / tokensPerMs());
+    }
+}
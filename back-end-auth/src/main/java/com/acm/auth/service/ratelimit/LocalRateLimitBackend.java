@@ -0,0 +1,136 @@
+package com.acm.auth.service.ratelimit;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token buckets in node memory, spread over independently locked stripes so
+ * concurrent requests for different keys rarely contend.
+ *
+ * Each stripe keeps its buckets in least-recently-used order and holds at most
+ * its share of {@code maxBuckets}; beyond that the least recently used bucket is
+ * dropped. A bucket left alone until it would have refilled completely carries
+ * no state, so {@link #evictIdle()} drops those from the cold end of each stripe.
+ */
+@Slf4j
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final Clock clock;
+
+    public LocalRateLimitBackend(Clock clock, int stripeCount, int maxBuckets) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        int perStripe = Math.max(1, maxBuckets / count);
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, BucketSpec spec) {
+        long now = clock.millis();
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(spec.capacity(), now, spec.fullAfterMs());
+                stripe.buckets.put(key, bucket);
+                stripe.minFullAfterMs = Math.min(stripe.minFullAfterMs, bucket.fullAfterMs);
+            }
+            return bucket.take(spec, now);
+        }
+    }
+
+    /**
+     * Drop buckets that have been idle long enough to be full again.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = clock.millis();
+        int dropped = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> buckets = stripe.buckets.values().iterator();
+                while (buckets.hasNext()) {
+                    Bucket bucket = buckets.next();
+                    long idleMs = now - bucket.updatedAt;
+                    if (idleMs >= bucket.fullAfterMs) {
+                        buckets.remove();
+                        dropped++;
+                    } else if (idleMs < stripe.minFullAfterMs) {
+                        // Everything further on was used more recently, so none is full yet
+                        break;
+                    }
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} idle rate limit buckets", dropped);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+        private final long fullAfterMs;
+
+        private Bucket(double tokens, long updatedAt, long fullAfterMs) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+            this.fullAfterMs = fullAfterMs;
+        }
+
+        private long take(BucketSpec spec, long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(spec.capacity(), tokens + (now - updatedAt) * spec.tokensPerMs());
+                updatedAt = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / spec.tokensPerMs()));
+        }
+    }
+
+    private static final class Stripe {
+
+        private final Map<String, Bucket> buckets;
+        private long minFullAfterMs = Long.MAX_VALUE;
+
+        private Stripe(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.acm.auth.service.ratelimit;
+
+/**
+ * Where token buckets live. One backend shared by every node enforces the limits
+ * across the cluster; a node-local one enforces them per node.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Take one token from the bucket under {@code key}, creating it full if needed.
+     *
+     * @return 0 if the request may proceed, otherwise how many milliseconds until a
+     *         token is available
+     */
+    long tryAcquire(String key, BucketSpec spec);
+}
@@ -0,0 +1,169 @@
+package com.acm.auth.service.role;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.acm.auth.entity.Role;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.repository.RoleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the roles table, which only holds a handful of rows.
+ *
+ * For every distinct set of role ids a user can hold, the primary role, redirect
+ * path and token scope are computed once and reused, so issuing a token does no
+ * per-role work. The registry is reloaded after RoleService writes commit and on
+ * a fixed delay, which picks up role edits made on other nodes.
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+
+    public static final String DEFAULT_ROLE = "USER";
+    public static final String DEFAULT_REDIRECT = "/";
+
+    public record RoleEntry(Long id, String code, String name, String description, int priority,
+            String redirectPath) {
+
+        static RoleEntry from(Role role) {
+            return new RoleEntry(role.getId(), role.getCode(), role.getName(), role.getDescription(),
+                    role.getPriority() != null ? role.getPriority() : 0, role.getRedirectPath());
+        }
+    }
+
+    /**
+     * Everything derived from one set of roles. Codes are sorted; primaryRole is
+     * null when the set is empty.
+     */
+    public record RoleSet(List<String> codes, String primaryRole, String redirectPath, String scope) {
+
+        public static final RoleSet EMPTY = new RoleSet(List.of(), null, DEFAULT_REDIRECT, "");
+    }
+
+    private record Roles(List<RoleEntry> all, Map<Long, RoleEntry> byId, Map<String, RoleEntry> byCode,
+            Map<List<Long>, RoleSet> roleSets) {
+    }
+
+    private final RoleRepository roleRepository;
+
+    private volatile Roles roles;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${roles.registry.refresh-interval-ms:60000}",
+            initialDelayString = "${roles.registry.refresh-interval-ms:60000}")
+    public void reload() {
+        List<RoleEntry> all = roleRepository.findAll().stream()
+                .map(RoleEntry::from)
+                .sorted(Comparator.comparing(RoleEntry::code))
+                .toList();
+        roles = new Roles(all,
+                all.stream().collect(Collectors.toUnmodifiableMap(RoleEntry::id, Function.identity())),
+                all.stream().collect(Collectors.toUnmodifiableMap(RoleEntry::code, Function.identity())),
+                new ConcurrentHashMap<>());
+        log.debug("Role registry loaded with {} roles", all.size());
+    }
+
+    /**
+     * Reload once the current transaction commits, or now if there is none.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    public List<RoleEntry> all() {
+        return roles().all();
+    }
+
+    public Optional<RoleEntry> byId(Long id) {
+        return Optional.ofNullable(roles().byId().get(id));
+    }
+
+    public Optional<RoleEntry> byCode(String code) {
+        return Optional.ofNullable(roles().byCode().get(code.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * The requested role, falling back to the default USER role when the code is
+     * null or unknown.
+     */
+    public RoleEntry byCodeOrDefault(String code) {
+        return Optional.ofNullable(code).flatMap(this::byCode)
+                .or(() -> byCode(DEFAULT_ROLE))
+                .orElseThrow(() -> new AppException(ErrorCode.INTERNAL_ERROR, "Default role not found"));
+    }
+
+    /**
+     * Precomputed view of a sorted list of role ids. Ids of roles that no longer
+     * exist are ignored.
+     */
+    public RoleSet roleSet(List<Long> roleIds) {
+        if (roleIds.isEmpty()) {
+            return RoleSet.EMPTY;
+        }
+        Roles current = roles();
+        return current.roleSets().computeIfAbsent(roleIds, ids -> compute(current, ids));
+    }
+
+    private static RoleSet compute(Roles current, Collection<Long> roleIds) {
+        List<RoleEntry> entries = roleIds.stream()
+                .map(current.byId()::get)
+                .filter(entry -> entry != null)
+                .sorted(Comparator.comparing(RoleEntry::code))
+                .toList();
+        if (entries.isEmpty()) {
+            return RoleSet.EMPTY;
+        }
+        RoleEntry primary = entries.stream()
+                .max(Comparator.comparingInt(RoleEntry::priority)
+                        .thenComparing(RoleEntry::code, Comparator.reverseOrder()))
+                .orElseThrow();
+        StringJoiner scope = new StringJoiner(" ");
+        entries.forEach(entry -> scope.add("ROLE_" + entry.code()));
+        return new RoleSet(entries.stream().map(RoleEntry::code).toList(), primary.code(),
+                primary.redirectPath() != null ? primary.redirectPath() : DEFAULT_REDIRECT, scope.toString());
+    }
+
+    private Roles roles() {
+        Roles current = roles;
+        if (current == null) {
+            synchronized (this) {
+                if (roles == null) {
+                    reload();
+                }
+                current = roles;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,257 @@
+package com.acm.auth.service.token;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared JWS key material for access and reset tokens.
+ *
+ * The base key comes from jwt.signing-algorithm with jwt.signer-key (HS512) or
+ * jwt.ec.private-jwk (ES256). Additional keys listed under jwt.key-ring.keys take
+ * over at their activates-at time, and superseded keys keep verifying for
+ * jwt.key-ring.overlap-seconds (see {@link SigningKeyRing}). Every token carries
+ * the kid of its signing key; tokens without a kid are checked against
+ * jwt.signer-key, which also stays verifiable after the base key moves to ES256.
+ *
+ * Nimbus signers and verifiers are thread-safe, so they are built once and
+ * reused until the key configuration changes.
+ */
+@Component
+@Slf4j
+public class JwsKeyMaterial {
+
+    static final String ALGORITHM_PROPERTY = "jwt.signing-algorithm";
+    static final String SIGNER_KEY_PROPERTY = "jwt.signer-key";
+    static final String EC_JWK_PROPERTY = "jwt.ec.private-jwk";
+    static final String RING_KEYS_PROPERTY = "jwt.key-ring.keys";
+    static final String OVERLAP_PROPERTY = "jwt.key-ring.overlap-seconds";
+    static final String REFRESHABLE_DURATION_PROPERTY = "jwt.refreshable-duration";
+
+    private final Environment environment;
+    private final Clock clock;
+
+    private volatile Keys keys;
+
+    public JwsKeyMaterial(Environment environment, Clock clock) {
+        this.environment = environment;
+        this.clock = clock;
+        refresh();
+    }
+
+    /**
+     * Sign the claims with the currently active key and return the compact serialization.
+     */
+    public String sign(JWTClaimsSet claimsSet) throws JOSEException {
+        SigningKeyRing.Key key = keys.ring().active(clock.instant());
+        JWSObject jwsObject = new JWSObject(key.header(), new Payload(claimsSet.toJSONObject()));
+        jwsObject.sign(key.signer());
+        return jwsObject.serialize();
+    }
+
+    /**
+     * Verify the signature of a parsed token with the key named by its kid.
+     * Unknown and retired keys fail verification.
+     */
+    public boolean verify(SignedJWT signedJWT) throws JOSEException {
+        JWSHeader header = signedJWT.getHeader();
+        SigningKeyRing.Key key = keys.ring().verificationKey(header.getKeyID(), clock.instant());
+        if (key == null || !key.verifier().supportedJWSAlgorithms().contains(header.getAlgorithm())) {
+            return false;
+        }
+        return signedJWT.verify(key.verifier());
+    }
+
+    /**
+     * Public keys that are active, pre-published or still in their overlap window.
+     * Empty when only HMAC keys are in use.
+     */
+    public JWKSet publicJwkSet() {
+        return keys.ring().publicKeys(clock.instant());
+    }
+
+    public JWSAlgorithm algorithm() {
+        return keys.ring().active(clock.instant()).header().getAlgorithm();
+    }
+
+    /**
+     * Re-read the key configuration, rebuilding signers and verifiers only if it
+     * changed. Runs once at construction; key-ring changes otherwise take effect
+     * on restart.
+     */
+    public synchronized void refresh() {
+        long defaultOverlap = environment.getProperty(REFRESHABLE_DURATION_PROPERTY, Long.class, 86400L);
+        KeyConfig config = new KeyConfig(
+                JWSAlgorithm.parse(environment.getProperty(ALGORITHM_PROPERTY, "HS512")),
+                environment.getRequiredProperty(SIGNER_KEY_PROPERTY),
+                environment.getProperty(EC_JWK_PROPERTY, ""),
+                Binder.get(environment)
+                        .bind(RING_KEYS_PROPERTY, Bindable.listOf(RingKeyProperties.class))
+                        .orElse(List.of()),
+                Duration.ofSeconds(environment.getProperty(OVERLAP_PROPERTY, Long.class, defaultOverlap)));
+        Keys current = keys;
+        if (current != null && current.config().equals(config)) {
+            return;
+        }
+        try {
+            keys = build(config, current);
+        } catch (JOSEException | ParseException e) {
+            throw new IllegalStateException("Invalid JWT signing key configuration", e);
+        }
+        SigningKeyRing.Key active = keys.ring().active(clock.instant());
+        log.info("JWT signing keys loaded - {} key(s), active kid: {} ({})",
+                config.ringKeys().size() + 1, active.kid(), active.header().getAlgorithm());
+    }
+
+    private Keys build(KeyConfig config, Keys previous) throws JOSEException, ParseException {
+        List<SigningKeyRing.Key> ringKeys = new ArrayList<>();
+        SigningKeyRing.Key baseKey = buildBaseKey(config, previous);
+        ringKeys.add(baseKey);
+        for (RingKeyProperties properties : config.ringKeys()) {
+            ringKeys.add(buildRingKey(properties));
+        }
+        // The HMAC signer key always verifies, so moving the base key to ES256
+        // does not invalidate tokens issued before the switch
+        SigningKeyRing.Key hmacKey = hmacKey(null, config.signerKey(), Instant.EPOCH);
+        return new Keys(config,
+                SigningKeyRing.of(ringKeys, List.of(hmacKey), hmacKey.kid(), config.overlap()),
+                baseKey);
+    }
+
+    private SigningKeyRing.Key buildBaseKey(KeyConfig config, Keys previous) throws JOSEException, ParseException {
+        if (JWSAlgorithm.HS512.equals(config.algorithm())) {
+            return hmacKey(null, config.signerKey(), Instant.EPOCH);
+        }
+        if (!JWSAlgorithm.ES256.equals(config.algorithm())) {
+            throw new IllegalStateException("Unsupported JWT signing algorithm: " + config.algorithm());
+        }
+        if (!config.ecJwk().isBlank()) {
+            return ecKey(ECKey.parse(config.ecJwk()), Instant.EPOCH);
+        }
+
+        if (previous != null && previous.config().ecJwk().isBlank()
+                && previous.baseKey().privateJwk() instanceof ECKey ephemeral) {
+            return ecKey(ephemeral, Instant.EPOCH);
+        }
+        log.warn("No {} configured - generating an ephemeral ES256 key. Tokens will not survive a restart "
+                + "and will not verify on other nodes.", EC_JWK_PROPERTY);
+        return ecKey(new ECKeyGenerator(Curve.P_256)
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.ES256)
+                .generate(), Instant.EPOCH);
+    }
+
+    private SigningKeyRing.Key buildRingKey(RingKeyProperties properties) throws JOSEException, ParseException {
+        if (properties.kid() == null || properties.kid().isBlank()) {
+            throw new IllegalStateException("Every " + RING_KEYS_PROPERTY + " entry needs a kid");
+        }
+        Instant activatesAt = properties.activatesAt() != null ? properties.activatesAt() : Instant.EPOCH;
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(
+                properties.algorithm() != null ? properties.algorithm() : JWSAlgorithm.HS512.getName());
+
+        if (JWSAlgorithm.HS512.equals(algorithm)) {
+            if (properties.secret() == null || properties.secret().isBlank()) {
+                throw new IllegalStateException("HS512 key " + properties.kid() + " needs a secret");
+            }
+            return hmacKey(properties.kid(), properties.secret(), activatesAt);
+        }
+        if (JWSAlgorithm.ES256.equals(algorithm)) {
+            if (properties.privateJwk() == null || properties.privateJwk().isBlank()) {
+                throw new IllegalStateException("ES256 key " + properties.kid() + " needs a private-jwk");
+            }
+            ECKey ecKey = new ECKey.Builder(ECKey.parse(properties.privateJwk())).keyID(properties.kid()).build();
+            return ecKey(ecKey, activatesAt);
+        }
+        throw new IllegalStateException("Unsupported algorithm for key " + properties.kid() + ": " + algorithm);
+    }
+
+    private static SigningKeyRing.Key hmacKey(String kid, String secret, Instant activatesAt) throws JOSEException {
+        byte[] secretBytes = secret.getBytes();
+        if (secretBytes.length < 64) {
+            throw new IllegalStateException("HS512 secrets must be at least 64 bytes");
+        }
+        String keyId = kid != null ? kid : hmacKid(secretBytes);
+        return new SigningKeyRing.Key(keyId, activatesAt,
+                new JWSHeader.Builder(JWSAlgorithm.HS512).keyID(keyId).build(),
+                new MACSigner(secretBytes), new MACVerifier(secretBytes), null, null);
+    }
+
+    private static SigningKeyRing.Key ecKey(ECKey ecKey, Instant activatesAt) throws JOSEException {
+        if (!Curve.P_256.equals(ecKey.getCurve()) || !ecKey.isPrivate()) {
+            throw new IllegalStateException("ES256 keys must be private P-256 JWKs");
+        }
+        if (ecKey.getKeyID() == null) {
+            ecKey = new ECKey.Builder(ecKey).keyIDFromThumbprint().build();
+        }
+        return new SigningKeyRing.Key(ecKey.getKeyID(), activatesAt,
+                new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(ecKey.getKeyID()).build(),
+                new ECDSASigner(ecKey), new ECDSAVerifier(ecKey.toPublicJWK()), ecKey.toPublicJWK(), ecKey);
+    }
+
+    /**
+     * Stable, non-reversible kid for an HMAC secret.
+     */
+    private static String hmacKid(byte[] secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret);
+            return "hs-" + Base64URL.encode(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One jwt.key-ring.keys entry. HS512 keys use secret, ES256 keys use private-jwk.
+     */
+    public record RingKeyProperties(String kid, String algorithm, String secret, String privateJwk,
+            Instant activatesAt) {
+        @Override
+        public String toString() {
+            return "RingKeyProperties[kid=" + kid + ", algorithm=" + algorithm + ", activatesAt=" + activatesAt + "]";
+        }
+    }
+
+    private record KeyConfig(JWSAlgorithm algorithm, String signerKey, String ecJwk,
+            List<RingKeyProperties> ringKeys, Duration overlap) {
+        @Override
+        public String toString() {
+            return "KeyConfig[" + algorithm + ", ringKeys=" + ringKeys + ", overlap=" + overlap + "]";
+        }
+    }
+
+    private record Keys(KeyConfig config, SigningKeyRing ring, SigningKeyRing.Key baseKey) {
+    }
+}
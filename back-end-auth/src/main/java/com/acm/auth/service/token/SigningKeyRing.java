@@ -0,0 +1,117 @@
+package com.acm.auth.service.token;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+/**
+ * Immutable set of signing keys ordered by activation time.
+ *
+ * The active key is the most recently activated one. A key keeps verifying
+ * tokens until the overlap window has passed since its successor activated, so
+ * every token it signed can still be used and refreshed after a rotation. Keys
+ * with a future activation time are already verifiable and published, which
+ * lets every node and downstream JWKS cache learn them before any node signs
+ * with them. Verify-only keys never sign and never retire.
+ */
+final class SigningKeyRing {
+
+    private final List<Entry> entries;
+    private final Map<String, Entry> byKid;
+    private final String defaultKid;
+
+    private SigningKeyRing(List<Entry> entries, List<Entry> verifyOnly, String defaultKid) {
+        this.entries = entries;
+        this.defaultKid = defaultKid;
+        this.byKid = new HashMap<>();
+        verifyOnly.forEach(entry -> byKid.put(entry.kid(), entry));
+        entries.forEach(entry -> byKid.put(entry.kid(), entry));
+    }
+
+    /**
+     * @param keys       signing keys in any order; kids must be unique
+     * @param verifyOnly keys that are never used to sign but always verify
+     * @param defaultKid key used for tokens issued without a kid header
+     * @param overlap    how long a superseded key stays verifiable
+     */
+    static SigningKeyRing of(List<Key> keys, List<Key> verifyOnly, String defaultKid, Duration overlap) {
+        List<Key> sorted = new ArrayList<>(keys);
+        sorted.sort(Comparator.comparing(Key::activatesAt));
+
+        List<Entry> entries = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Key key = sorted.get(i);
+            Instant verifiableUntil = i + 1 < sorted.size()
+                    ? sorted.get(i + 1).activatesAt().plus(overlap)
+                    : Instant.MAX;
+            entries.add(new Entry(key, verifiableUntil));
+        }
+        if (entries.stream().map(Entry::kid).distinct().count() != entries.size()) {
+            throw new IllegalStateException("Duplicate kid in JWT signing key ring");
+        }
+        List<Entry> verifyOnlyEntries = verifyOnly.stream()
+                .map(key -> new Entry(key, Instant.MAX))
+                .toList();
+        return new SigningKeyRing(List.copyOf(entries), verifyOnlyEntries, defaultKid);
+    }
+
+    /**
+     * The key to sign with at the given instant.
+     */
+    Key active(Instant now) {
+        for (int i = entries.size() - 1; i > 0; i--) {
+            Key key = entries.get(i).key();
+            if (!key.activatesAt().isAfter(now)) {
+                return key;
+            }
+        }
+        return entries.get(0).key();
+    }
+
+    /**
+     * The key to verify a token with, or null if the kid is unknown or retired.
+     */
+    Key verificationKey(String kid, Instant now) {
+        Entry entry = byKid.get(kid != null ? kid : defaultKid);
+        if (entry == null || !now.isBefore(entry.verifiableUntil())) {
+            return null;
+        }
+        return entry.key();
+    }
+
+    /**
+     * Public keys that are still verifiable, for the JWKS endpoint.
+     */
+    JWKSet publicKeys(Instant now) {
+        List<JWK> jwks = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.key().publicJwk() != null && now.isBefore(entry.verifiableUntil())) {
+                jwks.add(entry.key().publicJwk());
+            }
+        }
+        return new JWKSet(jwks);
+    }
+
+    /**
+     * One signing key. publicJwk is null for symmetric keys, which are never published.
+     */
+    record Key(String kid, Instant activatesAt, JWSHeader header, JWSSigner signer, JWSVerifier verifier,
+            JWK publicJwk, JWK privateJwk) {
+    }
+
+    private record Entry(Key key, Instant verifiableUntil) {
+        String kid() {
+            return key.kid();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.acm.auth.service.token;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.user.UserSnapshotCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user token epochs for revoking all of a user's tokens with one write.
+ *
+ * Tokens carry the epoch they were issued under; a token is only accepted while
+ * its epoch is not older than the user's current one. Current epochs are cached
+ * per node, so a bump made on another node is seen within jwt.epoch.cache-ttl-seconds.
+ */
+@Service
+@Slf4j
+public class TokenEpochService {
+
+    public static final String EPOCH_CLAIM = "token_epoch";
+
+    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final Cache<Long, Long> epochs;
+
+    public TokenEpochService(UserRepository userRepository, UserSnapshotCache userSnapshotCache,
+            @Value("${jwt.epoch.cache-ttl-seconds:30}") long cacheTtlSeconds,
+            @Value("${jwt.epoch.cache-max-entries:100000}") long cacheMaxEntries) {
+        this.userRepository = userRepository;
+        this.userSnapshotCache = userSnapshotCache;
+        this.epochs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxEntries)
+                .build();
+    }
+
+    /**
+     * Current epoch of a user. Unknown users get Long.MAX_VALUE so their tokens are rejected.
+     */
+    public long currentEpoch(Long userId) {
+        return epochs.get(userId, id -> userRepository.findTokenEpochById(id).orElse(Long.MAX_VALUE));
+    }
+
+    /**
+     * Whether the token's epoch is still current. Tokens without a user_id are not user-bound.
+     */
+    public boolean isCurrent(JWTClaimsSet claims) {
+        Long userId = toLong(claims.getClaim("user_id"));
+        if (userId == null) {
+            return true;
+        }
+        Long tokenEpoch = toLong(claims.getClaim(EPOCH_CLAIM));
+        return (tokenEpoch != null ? tokenEpoch : 0L) >= currentEpoch(userId);
+    }
+
+    /**
+     * Revoke every token issued to the user so far.
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        userRepository.incrementTokenEpoch(userId);
+        invalidateAfterCommit(userId);
+        log.info("All tokens revoked for user {}", userId);
+    }
+
+    /**
+     * Change the user's status and revoke every token issued so far, in one write.
+     */
+    @Transactional
+    public boolean changeStatus(Long userId, UserStatus status) {
+        boolean updated = userRepository.updateStatusAndIncrementTokenEpoch(userId, status) > 0;
+        invalidateAfterCommit(userId);
+        return updated;
+    }
+
+    /**
+     * Drop the cached epoch now and again after commit, so a concurrent read
+     * cannot cache the pre-commit value.
+     */
+    private void invalidateAfterCommit(Long userId) {
+        userSnapshotCache.evict(userId);
+        epochs.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    epochs.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number num) {
+            return num.longValue();
+        }
+        if (value instanceof String str) {
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,186 @@
+package com.acm.auth.service.token;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.RevokedTokenRef;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Node-local index of revoked token ids (jti) in front of the invalidated_tokens table.
+ *
+ * Entries are bucketed by the minute in which the revocation stops mattering
+ * (token expiry plus the refresh window), so whole buckets are dropped once
+ * every token in them could no longer be accepted anyway.
+ *
+ * The first sync loads every revocation that still matters. Later syncs, on a
+ * fixed delay, only fetch rows whose created_at (database time) is at or after
+ * the newest one seen minus sync-overlap-seconds; the overlap covers rows from
+ * transactions that committed late or had not reached the read replica yet.
+ * This also picks up revocations written by other nodes. Until the first load
+ * completes, or when the last successful sync is older than the staleness
+ * bound, lookups fall back to the database.
+ */
+@Component
+@Slf4j
+public class TokenRevocationIndex {
+
+    private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final Clock clock;
+    private final long graceMillis;
+    private final long maxStalenessMillis;
+    private final long syncOverlapMillis;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    private volatile long lastSyncedAt = -1;
+    private Date watermark;
+
+    public TokenRevocationIndex(InvalidatedTokenRepository invalidatedTokenRepository, Clock clock,
+            @Value("${jwt.refreshable-duration}") long refreshableDuration,
+            @Value("${jwt.revocation.max-staleness-seconds:120}") long maxStalenessSeconds,
+            @Value("${jwt.revocation.sync-overlap-seconds:60}") long syncOverlapSeconds) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.clock = clock;
+        this.graceMillis = TimeUnit.SECONDS.toMillis(refreshableDuration);
+        this.maxStalenessMillis = TimeUnit.SECONDS.toMillis(maxStalenessSeconds);
+        this.syncOverlapMillis = TimeUnit.SECONDS.toMillis(syncOverlapSeconds);
+    }
+
+    /**
+     * Check whether a token id has been revoked, consulting the database only
+     * when the index is cold or stale.
+     */
+    public boolean isRevoked(String jwtId) {
+        return switch (lookup(jwtId)) {
+            case REVOKED -> true;
+            case NOT_REVOKED -> false;
+            case UNKNOWN -> invalidatedTokenRepository.existsById(jwtId);
+        };
+    }
+
+    /**
+     * Return the revoked ids among the given ones, resolving every id the index
+     * cannot answer with one database query.
+     */
+    public Set<String> revokedAmong(Collection<String> jwtIds) {
+        Set<String> revokedIds = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String jwtId : jwtIds) {
+            switch (lookup(jwtId)) {
+                case REVOKED -> revokedIds.add(jwtId);
+                case UNKNOWN -> unknown.add(jwtId);
+                case NOT_REVOKED -> {
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            revokedIds.addAll(invalidatedTokenRepository.findExistingIds(unknown));
+        }
+        return revokedIds;
+    }
+
+    /**
+     * Answer from memory only.
+     */
+    public Lookup lookup(String jwtId) {
+        long now = clock.millis();
+        Long retainUntil = revoked.get(jwtId);
+        if (retainUntil != null && retainUntil > now) {
+            return Lookup.REVOKED;
+        }
+        long syncedAt = lastSyncedAt;
+        if (syncedAt < 0 || now - syncedAt > maxStalenessMillis) {
+            return Lookup.UNKNOWN;
+        }
+        return Lookup.NOT_REVOKED;
+    }
+
+    /**
+     * Record a revocation that has just been written to invalidated_tokens.
+     */
+    public void add(String jwtId, Date expiryTime) {
+        if (jwtId == null || expiryTime == null) {
+            return;
+        }
+        long retainUntil = expiryTime.getTime() + graceMillis;
+        if (retainUntil <= clock.millis()) {
+            return;
+        }
+        revoked.merge(jwtId, retainUntil, Math::max);
+        buckets.computeIfAbsent(bucketOf(retainUntil), key -> ConcurrentHashMap.newKeySet()).add(jwtId);
+    }
+
+    /**
+     * Fetch revocations written since the last sync (all of them the first time)
+     * and drop expired buckets.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public synchronized void sync() {
+        long startedAt = clock.millis();
+        try {
+            List<RevokedTokenRef> rows = watermark == null
+                    ? invalidatedTokenRepository.findRefsExpiringAfter(new Date(startedAt - graceMillis))
+                    : invalidatedTokenRepository.findRefsCreatedSince(
+                            new Date(watermark.getTime() - syncOverlapMillis));
+            for (RevokedTokenRef row : rows) {
+                add(row.id(), row.expiryTime());
+                if (row.createdAt() != null && (watermark == null || row.createdAt().after(watermark))) {
+                    watermark = row.createdAt();
+                }
+            }
+            if (watermark == null) {
+                // Nothing revoked yet; later syncs still only need rows written from now on
+                watermark = new Date(startedAt - syncOverlapMillis);
+            }
+            evictExpired();
+            if (lastSyncedAt < 0) {
+                log.info("Token revocation index loaded with {} entries", rows.size());
+            }
+            lastSyncedAt = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Token revocation index sync failed, falling back to database lookups: {}", e.getMessage());
+        }
+    }
+
+    void evictExpired() {
+        long current = bucketOf(clock.millis());
+        NavigableMap<Long, Set<String>> expired = buckets.headMap(current, false);
+        expired.forEach((bucket, ids) -> ids.forEach(id -> revoked.computeIfPresent(id,
+                (key, retainUntil) -> bucketOf(retainUntil) <= bucket ? null : retainUntil)));
+        expired.clear();
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private static long bucketOf(long epochMillis) {
+        return epochMillis / BUCKET_MILLIS;
+    }
+
+    public enum Lookup {
+        REVOKED,
+        NOT_REVOKED,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,284 @@
+package com.acm.auth.service.user;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.acm.auth.entity.User;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Failed sign-in counting and temporary lockout.
+ *
+ * Every lockout.threshold consecutive wrong passwords lock the account for
+ * base-lock-seconds, doubling with each further lock up to max-lock-seconds; a
+ * successful sign-in clears the count. Locks simply run out.
+ *
+ * Counts are kept in independently locked in-memory stripes and written to
+ * users.failed_login_attempts / locked_until in JDBC batches every
+ * flush-interval-ms. Failures are flushed as increments, so nodes sharing the
+ * table add up rather than overwrite each other, and another node sees a lock
+ * once it is flushed. Entries with nothing left to write are dropped once their
+ * lock has run out; the user row is the state after that.
+ */
+@Service
+@Slf4j
+public class LoginAttemptTracker {
+
+    private static final String ADD_FAILURES = "UPDATE users SET failed_login_attempts = failed_login_attempts + ?, "
+            + "locked_until = CASE WHEN locked_until IS NULL OR locked_until < ? THEN ? ELSE locked_until END, "
+            + "version = version + 1 WHERE user_id = ?";
+    private static final String RESET = "UPDATE users SET failed_login_attempts = 0, locked_until = NULL, "
+            + "version = version + 1 WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int threshold;
+    private final Duration baseLock;
+    private final Duration maxLock;
+    private final int flushBatchSize;
+
+    public LoginAttemptTracker(JdbcTemplate jdbcTemplate, Clock clock,
+            @Value("${lockout.threshold:5}") int threshold,
+            @Value("${lockout.base-lock-seconds:60}") long baseLockSeconds,
+            @Value("${lockout.max-lock-seconds:3600}") long maxLockSeconds,
+            @Value("${lockout.stripes:16}") int stripeCount,
+            @Value("${lockout.flush-batch-size:500}") int flushBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.threshold = Math.max(1, threshold);
+        this.baseLock = Duration.ofSeconds(baseLockSeconds);
+        this.maxLock = Duration.ofSeconds(Math.max(baseLockSeconds, maxLockSeconds));
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Reject the sign-in if the account is locked. Called before the password is
+     * checked, so a locked account costs no hash.
+     */
+    public void checkNotLocked(User user) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime lockedUntil;
+        Stripe stripe = stripeFor(user.getId());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(user.getId());
+            lockedUntil = entry != null ? entry.sync(user).lockedUntil : user.getLockedUntil();
+        }
+        if (lockedUntil != null && lockedUntil.isAfter(now)) {
+            throw new AppException(ErrorCode.ACCOUNT_TEMPORARILY_LOCKED);
+        }
+    }
+
+    /**
+     * Count a wrong password, locking the account on every threshold-th one in a row.
+     */
+    public void recordFailure(User user) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Stripe stripe = stripeFor(user.getId());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(user.getId(), id -> new Entry(user)).sync(user);
+            entry.failures++;
+            entry.pendingFailures++;
+            if (entry.failures % threshold == 0) {
+                entry.lockedUntil = now.plus(lockDuration(entry.failures));
+                log.warn("User {} locked until {} after {} failed sign-ins", user.getId(), entry.lockedUntil,
+                        entry.failures);
+            }
+        }
+    }
+
+    /**
+     * Clear the failure count after a successful sign-in. Free when there is nothing to clear.
+     */
+    public void recordSuccess(User user) {
+        Stripe stripe = stripeFor(user.getId());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(user.getId());
+            if (entry == null) {
+                if (user.getFailedLoginAttempts() == 0 && user.getLockedUntil() == null) {
+                    return;
+                }
+                entry = new Entry(user);
+                stripe.entries.put(user.getId(), entry);
+            }
+            entry.failures = 0;
+            entry.pendingFailures = 0;
+            entry.lockedUntil = null;
+            entry.pendingReset = true;
+        }
+    }
+
+    /**
+     * Write pending counts and locks to the users table in batches. Anything that
+     * fails to write is put back for the next run.
+     */
+    @Scheduled(fixedDelayString = "${lockout.flush-interval-ms:1000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> resets = new ArrayList<>();
+        List<Pending> failures = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Map.Entry<Long, Entry>> entries = stripe.entries.entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<Long, Entry> next = entries.next();
+                    Entry entry = next.getValue();
+                    if (entry.pendingReset) {
+                        resets.add(next.getKey());
+                        entry.pendingReset = false;
+                    }
+                    if (entry.pendingFailures > 0) {
+                        failures.add(new Pending(next.getKey(), entry.pendingFailures, entry.lockedUntil));
+                        entry.pendingFailures = 0;
+                    }
+                    if (entry.lockedUntil == null || !entry.lockedUntil.isAfter(now)) {
+                        entries.remove();
+                    }
+                }
+            }
+        }
+        if (resets.isEmpty() && failures.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(RESET, resets, flushBatchSize, (ps, userId) -> ps.setLong(1, userId));
+        } catch (RuntimeException e) {
+            log.warn("Writing {} sign-in resets failed, will retry: {}", resets.size(), e.getMessage());
+            resets.forEach(this::restoreReset);
+            failures.forEach(this::restore);
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(ADD_FAILURES, failures, flushBatchSize, (ps, pending) -> {
+                Timestamp lockedUntil = pending.lockedUntil() != null
+                        ? Timestamp.valueOf(pending.lockedUntil())
+                        : null;
+                ps.setInt(1, pending.failures());
+                ps.setTimestamp(2, lockedUntil);
+                ps.setTimestamp(3, lockedUntil);
+                ps.setLong(4, pending.userId());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Writing failed sign-ins for {} users failed, will retry: {}", failures.size(),
+                    e.getMessage());
+            failures.forEach(this::restore);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Users with counts or locks held in memory.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Lock length once failures reaches a multiple of the threshold: base, then
+     * doubling for each further lock, capped at the max.
+     */
+    Duration lockDuration(int failures) {
+        int doublings = Math.min(failures / threshold - 1, 30);
+        Duration lock = baseLock.multipliedBy(1L << Math.max(0, doublings));
+        return lock.compareTo(maxLock) > 0 ? maxLock : lock;
+    }
+
+    private void restoreReset(Long userId) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.entries.computeIfAbsent(userId, id -> new Entry(0, null)).pendingReset = true;
+        }
+    }
+
+    private void restore(Pending pending) {
+        Stripe stripe = stripeFor(pending.userId());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(pending.userId(),
+                    id -> new Entry(pending.failures(), pending.lockedUntil()));
+            entry.pendingFailures += pending.failures();
+            if (pending.lockedUntil() != null
+                    && (entry.lockedUntil == null || entry.lockedUntil.isBefore(pending.lockedUntil()))) {
+                entry.lockedUntil = pending.lockedUntil();
+            }
+        }
+    }
+
+    private Stripe stripeFor(Long userId) {
+        int hash = userId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private record Pending(Long userId, int failures, LocalDateTime lockedUntil) {
+    }
+
+    private static final class Entry {
+
+        private int failures;
+        private int pendingFailures;
+        private boolean pendingReset;
+        private LocalDateTime lockedUntil;
+
+        private Entry(User user) {
+            this(user.getFailedLoginAttempts(), user.getLockedUntil());
+        }
+
+        private Entry(int failures, LocalDateTime lockedUntil) {
+            this.failures = failures;
+            this.lockedUntil = lockedUntil;
+        }
+
+        /**
+         * Catch up with failures and locks another node has flushed since this
+         * entry was created. Not while a reset is unwritten: the row predates it.
+         */
+        private Entry sync(User user) {
+            if (!pendingReset) {
+                failures = Math.max(failures, user.getFailedLoginAttempts() + pendingFailures);
+                LocalDateTime stored = user.getLockedUntil();
+                if (stored != null && (lockedUntil == null || lockedUntil.isBefore(stored))) {
+                    lockedUntil = stored;
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+    }
+}
@@ -0,0 +1,369 @@
+package com.acm.auth.service.user;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.dto.request.SignUpRequest;
+import com.acm.auth.dto.response.UserImportResponse;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.service.role.RoleRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk user import for onboarding, from a CSV or NDJSON body.
+ *
+ * The body is read line by line and handled in chunks of user-import.batch-size:
+ * rows are validated like sign-up requests, checked for duplicates with one
+ * IN query per column, hashed in parallel and inserted with JDBC batches. A
+ * chunk that hits a concurrent insert falls back to row-by-row inserts. Rows
+ * that fail are reported at the end instead of aborting the import.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(user_name, email, password_hash, full_name, phone, status, joined_date, token_epoch, version) "
+            + "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?, 0, 0)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) "
+            + "SELECT user_id, ? FROM users WHERE email = ?";
+    private static final int HASH_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService importHashingExecutor;
+    private final int batchSize;
+    private final int maxReportedFailures;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate, PasswordEncoder passwordEncoder, RoleRegistry roleRegistry,
+            Validator validator, ObjectMapper objectMapper,
+            @Qualifier("importHashingExecutor") ExecutorService importHashingExecutor,
+            @Value("${user-import.batch-size:500}") int batchSize,
+            @Value("${user-import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importHashingExecutor = importHashingExecutor;
+        this.batchSize = batchSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    private record Row(int line, SignUpRequest request, Long roleId) {
+    }
+
+    private record HashedRow(Row row, String passwordHash) {
+    }
+
+    private final class Report {
+        int total;
+        int imported;
+        int failed;
+        final List<UserImportResponse.RowFailure> failures = new ArrayList<>();
+
+        void fail(int line, String identifier, ErrorCode errorCode, String message) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                failures.add(UserImportResponse.RowFailure.builder()
+                        .line(line)
+                        .identifier(identifier)
+                        .code(errorCode.getCode())
+                        .message(message != null ? message : errorCode.getMessage())
+                        .build());
+            }
+        }
+    }
+
+    public UserImportResponse importUsers(InputStream body, MediaType contentType) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            throw new AppException(ErrorCode.INVALID_REQUEST, "Import body must be text/csv or application/x-ndjson");
+        }
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+
+        Report report = new Report();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(batchSize);
+        long started = System.currentTimeMillis();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset))) {
+            List<String> header = null;
+            int line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(text).stream().map(UserImportService::normalizeColumn).toList();
+                    continue;
+                }
+                report.total++;
+                Row row = parseRow(line, text, csv ? header : null, report, seenEmails, seenUsernames);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        log.info("User import finished: {} rows, {} imported, {} failed in {} ms",
+                report.total, report.imported, report.failed, System.currentTimeMillis() - started);
+        return UserImportResponse.builder()
+                .total(report.total)
+                .imported(report.imported)
+                .failed(report.failed)
+                .failures(report.failures)
+                .build();
+    }
+
+    private Row parseRow(int line, String text, List<String> header, Report report, Set<String> seenEmails,
+            Set<String> seenUsernames) {
+        SignUpRequest request;
+        try {
+            request = header != null ? fromCsv(header, parseCsvLine(text)) : objectMapper.readValue(text, SignUpRequest.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            report.fail(line, null, ErrorCode.INVALID_REQUEST, "Malformed row");
+            return null;
+        }
+
+        Set<ConstraintViolation<SignUpRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<SignUpRequest> violation = violations.iterator().next();
+            report.fail(line, request.getEmail(), ErrorCode.INVALID_REQUEST,
+                    violation.getPropertyPath() + ": " + violation.getMessage());
+            return null;
+        }
+
+        String role = request.getRole() == null || request.getRole().isBlank() ? RoleRegistry.DEFAULT_ROLE
+                : request.getRole();
+        var roleEntry = roleRegistry.byCode(role);
+        if (roleEntry.isEmpty()) {
+            report.fail(line, request.getEmail(), ErrorCode.ROLE_NOT_FOUND, null);
+            return null;
+        }
+        if (!seenEmails.add(request.getEmail().toLowerCase(Locale.ROOT))) {
+            report.fail(line, request.getEmail(), ErrorCode.EMAIL_ALREADY_EXISTS, "Email repeated in import");
+            return null;
+        }
+        if (!seenUsernames.add(request.getUsername().toLowerCase(Locale.ROOT))) {
+            report.fail(line, request.getEmail(), ErrorCode.USERNAME_ALREADY_EXISTS, "Username repeated in import");
+            return null;
+        }
+        return new Row(line, request, roleEntry.get().id());
+    }
+
+    private void importChunk(List<Row> chunk, Report report) {
+        Set<String> existingEmails = existing("email", chunk.stream().map(row -> row.request().getEmail()).toList());
+        Set<String> existingUsernames = existing("user_name",
+                chunk.stream().map(row -> row.request().getUsername()).toList());
+
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existingEmails.contains(row.request().getEmail().toLowerCase(Locale.ROOT))) {
+                report.fail(row.line(), row.request().getEmail(), ErrorCode.EMAIL_ALREADY_EXISTS, null);
+            } else if (existingUsernames.contains(row.request().getUsername().toLowerCase(Locale.ROOT))) {
+                report.fail(row.line(), row.request().getEmail(), ErrorCode.USERNAME_ALREADY_EXISTS, null);
+            } else {
+                fresh.add(row);
+            }
+        }
+
+        List<HashedRow> hashed = hash(fresh, report);
+        if (hashed.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(hashed));
+            report.imported += hashed.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent sign-up took one of the identifiers; retry the chunk row by row
+            for (HashedRow row : hashed) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    report.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    report.fail(row.row().line(), row.row().request().getEmail(), ErrorCode.USER_ALREADY_EXISTS, null);
+                }
+            }
+        }
+    }
+
+    private Set<String> existing(String column, List<String> values) {
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT " + column + " FROM users WHERE " + column + " IN (:values)",
+                Map.of("values", values), String.class)
+                .stream()
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    private List<HashedRow> hash(List<Row> rows, Report report) {
+        List<CompletableFuture<String>> futures = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> encode(row.request().getPassword()),
+                        importHashingExecutor))
+                .toList();
+        List<HashedRow> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            try {
+                hashed.add(new HashedRow(row, futures.get(i).join()));
+            } catch (CompletionException e) {
+                ErrorCode errorCode = e.getCause() instanceof AppException appException ? appException.getErrorCode()
+                        : ErrorCode.INTERNAL_ERROR;
+                report.fail(row.line(), row.request().getEmail(), errorCode, null);
+            }
+        }
+        return hashed;
+    }
+
+    /**
+     * Encode through the shared bounded encoder, backing off while sign-ins keep it saturated.
+     */
+    private String encode(String rawPassword) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } catch (AppException e) {
+                if (e.getErrorCode() != ErrorCode.PASSWORD_HASHING_BUSY || attempt == HASH_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void insert(List<HashedRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (ps, row) -> {
+            SignUpRequest request = row.row().request();
+            ps.setString(1, request.getUsername());
+            ps.setString(2, request.getEmail());
+            ps.setString(3, row.passwordHash());
+            ps.setString(4, request.getFullName());
+            ps.setString(5, request.getPhone());
+            ps.setTimestamp(6, now);
+        });
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.row().roleId());
+            ps.setString(2, row.row().request().getEmail());
+        });
+    }
+
+    private static SignUpRequest fromCsv(List<String> header, List<String> cells) {
+        if (cells.size() > header.size()) {
+            throw new IllegalArgumentException("Too many columns");
+        }
+        SignUpRequest request = new SignUpRequest();
+        request.setRole(null);
+        for (int i = 0; i < cells.size(); i++) {
+            String value = cells.get(i).isEmpty() ? null : cells.get(i);
+            switch (header.get(i)) {
+                case "username" -> request.setUsername(value);
+                case "email" -> request.setEmail(value);
+                case "password" -> request.setPassword(value);
+                case "fullname" -> request.setFullName(value);
+                case "phone" -> request.setPhone(value);
+                case "role" -> request.setRole(value);
+                default -> {
+                    // extra columns are ignored
+                }
+            }
+        }
+        return request;
+    }
+
+    private static String normalizeColumn(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split one CSV record. Supports quoted fields with "" escapes, not line breaks inside quotes.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+}
@@ -0,0 +1,225 @@
+package com.acm.auth.service.user;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.acm.auth.dto.response.UserPageResponse;
+import com.acm.auth.dto.response.UserResponse;
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.service.role.RoleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admin user listing and export, read with plain JDBC so no entities or role
+ * collections are loaded.
+ *
+ * Pages seek on user_id ({@code user_id > after ORDER BY user_id LIMIT n}), so
+ * every page costs the same however deep it is. The export streams the same
+ * query from a forward-only cursor and writes each user as it is read.
+ */
+@Service
+@Slf4j
+public class UserListingService {
+
+    private static final String COLUMNS = "u.user_id, u.user_name, u.email, u.full_name, u.phone, u.status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final RoleRegistry roleRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter ndjsonWriter;
+    private final int maxPageSize;
+    private final int exportFetchSize;
+
+    public UserListingService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            RoleRegistry roleRegistry, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            @Value("${users.listing.max-page-size:500}") int maxPageSize,
+            @Value("${users.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.roleRegistry = roleRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ndjsonWriter = objectMapper.writerFor(UserResponse.class);
+        this.maxPageSize = maxPageSize;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public UserPageResponse list(UserStatus status, String role, Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        MapSqlParameterSource params = new MapSqlParameterSource("after", after != null ? after : 0L)
+                .addValue("limit", pageSize + 1);
+        String sql = "SELECT " + COLUMNS + " FROM users u WHERE u.user_id > :after"
+                + filters(status, role, params)
+                + " ORDER BY u.user_id LIMIT :limit";
+
+        List<UserResponse> users = namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> toResponse(rs));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+        attachRoles(users);
+
+        return UserPageResponse.builder()
+                .items(users)
+                .nextCursor(hasMore ? users.get(users.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * Write every matching user as one JSON object per line. Filters are resolved
+     * here, so an unknown role fails the request before any output; roles come
+     * from the same ordered join and rows are grouped by user_id as they arrive.
+     */
+    public StreamingResponseBody export(UserStatus status, String role) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + COLUMNS + ", ur.role_id FROM users u "
+                + "LEFT JOIN user_roles ur ON ur.user_id = u.user_id WHERE 1 = 1"
+                + filters(status, role, params)
+                + " ORDER BY u.user_id";
+        String expanded = NamedParameterUtils.substituteNamedParameters(sql, params);
+        Object[] args = NamedParameterUtils.buildValueArray(sql, params.getValues());
+
+        return out -> {
+            ExportWriter writer = new ExportWriter(out);
+            long started = System.currentTimeMillis();
+            readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(expanded, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(exportFetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                return statement;
+            }, writer));
+            writer.finish();
+            log.info("Exported {} users in {} ms", writer.written, System.currentTimeMillis() - started);
+        };
+    }
+
+    private String filters(UserStatus status, String role, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder();
+        if (status != null) {
+            where.append(" AND u.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (role != null && !role.isBlank()) {
+            Long roleId = roleRegistry.byCode(role)
+                    .orElseThrow(() -> new AppException(ErrorCode.ROLE_NOT_FOUND))
+                    .id();
+            where.append(" AND EXISTS (SELECT 1 FROM user_roles fr WHERE fr.user_id = u.user_id AND fr.role_id = :roleId)");
+            params.addValue("roleId", roleId);
+        }
+        return where.toString();
+    }
+
+    private void attachRoles(List<UserResponse> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> roleIds = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT user_id, role_id FROM user_roles WHERE user_id IN (:ids)",
+                Map.of("ids", users.stream().map(UserResponse::getId).toList()),
+                (RowCallbackHandler) rs -> roleIds.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                        .add(rs.getLong(2)));
+        for (UserResponse user : users) {
+            user.setRole(primaryRole(roleIds.getOrDefault(user.getId(), List.of())));
+        }
+    }
+
+    private String primaryRole(List<Long> roleIds) {
+        return roleRegistry.roleSet(roleIds.stream().sorted().collect(Collectors.toList())).primaryRole();
+    }
+
+    private static UserResponse toResponse(ResultSet rs) throws SQLException {
+        return UserResponse.builder()
+                .id(rs.getLong("user_id"))
+                .username(rs.getString("user_name"))
+                .email(rs.getString("email"))
+                .fullName(rs.getString("full_name"))
+                .phone(rs.getString("phone"))
+                .status(rs.getString("status"))
+                .build();
+    }
+
+    /**
+     * Groups consecutive join rows into one user and writes it once the next user starts.
+     */
+    private final class ExportWriter implements RowCallbackHandler {
+
+        private static final int FLUSH_EVERY = 1000;
+
+        private final OutputStream out;
+        private UserResponse current;
+        private final List<Long> currentRoleIds = new ArrayList<>();
+        private long written;
+
+        ExportWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("user_id");
+            if (current == null || current.getId() != userId) {
+                flushCurrent();
+                current = toResponse(rs);
+            }
+            long roleId = rs.getLong("role_id");
+            if (!rs.wasNull()) {
+                currentRoleIds.add(roleId);
+            }
+        }
+
+        void finish() throws IOException {
+            flushCurrent();
+            out.flush();
+        }
+
+        private void flushCurrent() {
+            if (current == null) {
+                return;
+            }
+            current.setRole(primaryRole(currentRoleIds));
+            currentRoleIds.clear();
+            try {
+                out.write(ndjsonWriter.writeValueAsBytes(current));
+                out.write('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Client went away; abort the query instead of reading the rest of the table
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.acm.auth.service.user;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.acm.auth.entity.Role;
+import com.acm.auth.entity.User;
+import com.acm.auth.enums.UserStatus;
+
+/**
+ * Immutable view of a user, safe to share between requests. Roles are held as
+ * sorted ids and resolved through RoleRegistry. Holds no credentials.
+ */
+public record UserSnapshot(
+        Long id,
+        String username,
+        String email,
+        String phone,
+        String fullName,
+        UserStatus status,
+        LocalDateTime joinedDate,
+        long tokenEpoch,
+        long version,
+        List<Long> roleIds) {
+
+    public static UserSnapshot from(User user) {
+        List<Long> roleIds = user.getRoles() == null ? List.of()
+                : user.getRoles().stream()
+                        .map(Role::getId)
+                        .sorted()
+                        .toList();
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getEmail(), user.getPhone(),
+                user.getFullName(), user.getStatus(), user.getJoinedDate(), user.getTokenEpoch(), user.getVersion(),
+                roleIds);
+    }
+
+    /**
+     * Whether this user is the one the identifier (email or username) refers to.
+     */
+    public boolean matchesIdentifier(String identifier) {
+        return identifier.equalsIgnoreCase(email) || identifier.equalsIgnoreCase(username);
+    }
+}
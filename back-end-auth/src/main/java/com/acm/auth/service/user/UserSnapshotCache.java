@@ -0,0 +1,101 @@
+package com.acm.auth.service.user;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.acm.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of {@link UserSnapshot}s for /me and token refresh.
+ *
+ * Snapshots are keyed by user id; a second map resolves an email or username to
+ * the id. That map may briefly point at a user whose identifier has since
+ * changed, so every hit through it is checked against the snapshot itself.
+ * Writers call {@link #evict(Long)}; entries also expire
+ * after users.cache.ttl-seconds, which bounds staleness across nodes.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSnapshot> byId;
+    private final Cache<String, Long> idByIdentifier;
+
+    public UserSnapshotCache(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${users.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${users.cache.max-entries:50000}") long maxEntries) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        this.idByIdentifier = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries * 2)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByIdentifier, "users.by-identifier");
+    }
+
+    public Optional<UserSnapshot> getById(Long userId) {
+        return Optional.ofNullable(byId.get(userId,
+                id -> userRepository.findByIdWithRoles(id).map(UserSnapshot::from).orElse(null)));
+    }
+
+    public Optional<UserSnapshot> getByIdentifier(String identifier) {
+        String key = identifier.toLowerCase(Locale.ROOT);
+        Long cachedId = idByIdentifier.getIfPresent(key);
+        if (cachedId != null) {
+            UserSnapshot cached = byId.getIfPresent(cachedId);
+            if (cached != null && cached.matchesIdentifier(identifier)) {
+                return Optional.of(cached);
+            }
+        }
+        Optional<UserSnapshot> loaded = userRepository.findByIdentifierWithRoles(identifier).map(UserSnapshot::from);
+        loaded.ifPresent(snapshot -> {
+            byId.put(snapshot.id(), snapshot);
+            idByIdentifier.put(key, snapshot.id());
+        });
+        return loaded;
+    }
+
+    /**
+     * Seed the cache with a user that was just loaded for another reason, e.g. sign-in.
+     */
+    public void put(UserSnapshot snapshot) {
+        byId.put(snapshot.id(), snapshot);
+    }
+
+    /**
+     * Drop a user now and again after the current transaction commits, so a
+     * concurrent read cannot re-cache the pre-commit row.
+     */
+    public void evict(Long userId) {
+        byId.invalidate(userId);
+        afterCommit(() -> byId.invalidate(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.acm.auth.service.user;
+
+import java.util.function.Function;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.entity.User;
+import com.acm.auth.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks usernames for accounts that did not choose one (Google sign-up): the base
+ * itself if free, otherwise base plus one more than the highest numeric suffix taken.
+ *
+ * The free name is found with a single query however many collisions exist, and
+ * the unique index settles races: the insert runs in its own transaction and is
+ * retried with a fresh name when a concurrent sign-up took the same one.
+ */
+@Component
+@Slf4j
+public class UsernameAllocator {
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate requiresNew;
+
+    public UsernameAllocator(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String nextAvailable(String base) {
+        return userRepository.findHighestNumberedUsername(base, likePrefix(base), base.length() + 1)
+                .map(taken -> taken.length() == base.length()
+                        ? base + 1
+                        : base + (Long.parseLong(taken.substring(base.length())) + 1))
+                .orElse(base);
+    }
+
+    /**
+     * Insert the user built for a free username, committed on its own. A unique
+     * violation that is not about the username (e.g. the same account being created
+     * concurrently) is rethrown for the caller to resolve.
+     */
+    public User insertWithUniqueUsername(String base, Function<String, User> newUser) {
+        for (int attempt = 1;; attempt++) {
+            String username = nextAvailable(base);
+            try {
+                return requiresNew.execute(status -> userRepository.saveAndFlush(newUser.apply(username)));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS || !userRepository.existsByUsername(username)) {
+                    throw e;
+                }
+                log.info("Username {} was taken concurrently, retrying ({}/{})", username, attempt, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    private static String likePrefix(String base) {
+        return base.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
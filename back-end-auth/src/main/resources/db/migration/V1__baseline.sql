@@ -0,0 +1,71 @@
+-- Baseline: the schema Hibernate generated (ddl-auto: update) for the entities
+-- as they were before Flyway took over. Databases created that way are
+-- baselined at this version instead of running it
+-- (spring.flyway.baseline-on-migrate), so every later change goes in V2+.
+
+CREATE TABLE roles (
+    role_id       BIGINT       NOT NULL AUTO_INCREMENT,
+    code          VARCHAR(50)  NOT NULL,
+    name          VARCHAR(100) NOT NULL,
+    description   VARCHAR(255),
+    priority      INT          NOT NULL DEFAULT 0,
+    redirect_path VARCHAR(100),
+    PRIMARY KEY (role_id),
+    CONSTRAINT uk_roles_code UNIQUE (code)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- Identifier columns use the case-insensitive table collation, so the unique
+-- indexes also serve case-insensitive sign-in lookups.
+CREATE TABLE users (
+    user_id       BIGINT       NOT NULL AUTO_INCREMENT,
+    user_name     VARCHAR(255),
+    email         VARCHAR(255),
+    phone         VARCHAR(30),
+    full_name     VARCHAR(255),
+    password_hash VARCHAR(255),
+    status        ENUM ('ACTIVE', 'PENDING_VERIFICATION', 'INACTIVE', 'LOCKED') NOT NULL,
+    locked_until  DATETIME(6),
+    google_id     VARCHAR(255),
+    joined_date   DATETIME(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_user_name UNIQUE (user_name),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_google_id UNIQUE (google_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (user_id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (role_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_user_roles_role_id ON user_roles (role_id);
+
+CREATE TABLE invalidated_tokens (
+    id          VARCHAR(255) NOT NULL,
+    expiry_time DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE otp_verifications (
+    otp_id       BINARY(16)   NOT NULL,
+    user_id      BIGINT,
+    email        VARCHAR(320) NOT NULL,
+    purpose      ENUM ('REGISTER', 'RESET_PASSWORD') NOT NULL,
+    otp_hash     VARCHAR(255) NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    expires_at   DATETIME(6)  NOT NULL,
+    attempts     INT          NOT NULL,
+    max_attempts INT          NOT NULL,
+    consumed_at  DATETIME(6),
+    last_sent_at DATETIME(6),
+    resend_count INT          NOT NULL,
+    metadata     LONGTEXT,
+    PRIMARY KEY (otp_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_otp_email_purpose ON otp_verifications (email, purpose);
+CREATE INDEX idx_otp_user_purpose ON otp_verifications (user_id, purpose);
+CREATE INDEX idx_otp_expires_at ON otp_verifications (expires_at);
@@ -0,0 +1,4 @@
+-- Per-user token epoch (sign out everywhere, status changes) and the optimistic
+-- lock version, which also serves as the /me ETag.
+ALTER TABLE users ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- Indexes shaped after the repository queries.
+--
+-- OtpVerificationRepository.findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc:
+--   WHERE email = ? AND purpose = ? AND consumed_at IS NULL ORDER BY created_at DESC LIMIT 1
+-- is a single index seek with no sort on (email, purpose, consumed_at, created_at DESC).
+-- It replaces the (email, purpose) prefix, and nothing queries by user_id.
+CREATE INDEX idx_otp_email_purpose_active
+    ON otp_verifications (email, purpose, consumed_at, created_at DESC);
+DROP INDEX idx_otp_email_purpose ON otp_verifications;
+DROP INDEX idx_otp_user_purpose ON otp_verifications;
+
+-- Retention purge walks expiry order and pages by id:
+--   OtpVerificationRepository.findIdsExpiredBefore / InvalidatedTokenRepository.findIdsExpiredBefore
+--   WHERE expires_at < ? ORDER BY expires_at, id
+-- InnoDB appends the primary key to secondary indexes, so an index on the expiry
+-- column covers (expiry, id). idx_otp_expires_at exists since V1; invalidated_tokens
+-- had none.
+CREATE INDEX idx_invalidated_tokens_expiry_time ON invalidated_tokens (expiry_time);
+
+-- Admin listing: WHERE status = ? AND user_id > ? ORDER BY user_id LIMIT ?
+CREATE INDEX idx_users_status_user_id ON users (status, user_id);
+
+-- UserRepository lookups (email, user_name, google_id, user_id) use the unique
+-- indexes from V1.
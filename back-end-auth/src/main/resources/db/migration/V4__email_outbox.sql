@@ -0,0 +1,26 @@
+-- Outgoing mail, written in the same transaction as the row that triggers it
+-- (e.g. an OTP) and delivered by OutboxDispatcher.
+--
+-- PENDING rows are due at next_attempt_at. SENDING rows belong to the worker holding
+-- claim_token until next_attempt_at (the lease), after which they can be claimed
+-- again. SENT and DEAD rows have their body cleared and are purged after
+-- retention.outbox-hours, walking idx_email_outbox_finished_at.
+CREATE TABLE email_outbox (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(320)  NOT NULL,
+    subject         VARCHAR(255)  NOT NULL,
+    body            LONGTEXT,
+    status          ENUM ('PENDING', 'SENDING', 'SENT', 'DEAD') NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    created_at      DATETIME(6)   NOT NULL,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    expires_at      DATETIME(6),
+    finished_at     DATETIME(6),
+    claim_token     VARCHAR(36),
+    last_error      VARCHAR(1000),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
+CREATE INDEX idx_email_outbox_claim_token ON email_outbox (claim_token);
+CREATE INDEX idx_email_outbox_finished_at ON email_outbox (finished_at);
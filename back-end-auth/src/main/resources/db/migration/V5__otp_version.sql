@@ -0,0 +1,4 @@
+-- Optimistic lock version for otp_verifications. Attempt counting and consumption
+-- are conditional UPDATEs that bump it, so a stale entity can no longer be saved
+-- over them.
+ALTER TABLE otp_verifications ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Consecutive failed sign-ins since the last successful one. Together with
+-- locked_until it drives the temporary sign-in lockout; both are written in
+-- batches by LoginAttemptTracker.
+ALTER TABLE users ADD COLUMN failed_login_attempts INT NOT NULL DEFAULT 0;
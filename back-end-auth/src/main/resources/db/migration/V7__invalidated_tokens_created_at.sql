@@ -0,0 +1,4 @@
+-- When each revocation was written, in database time, so the revocation index can
+-- fetch only rows added since its last sync instead of every unexpired one.
+ALTER TABLE invalidated_tokens ADD COLUMN created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+CREATE INDEX idx_invalidated_tokens_created_at ON invalidated_tokens (created_at);
@@ -0,0 +1,88 @@
+package com.acm.auth.benchmark;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Compares building a MAC signer/verifier per call (the previous behaviour)
+ * with the shared instances held by {@link JwsKeyMaterial}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwsKeyMaterialBenchmark {
+
+    static final String SIGNER_KEY = "z0B8QFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnUf3=";
+
+    private JwsKeyMaterial keyMaterial;
+    private JWTClaimsSet claimsSet;
+    private String token;
+
+    @Setup
+    public void setup() throws JOSEException {
+        keyMaterial = new JwsKeyMaterial(new MockEnvironment().withProperty("jwt.signer-key", SIGNER_KEY),
+                Clock.systemUTC());
+        claimsSet = new JWTClaimsSet.Builder()
+                .subject("user1@acm.local")
+                .issuer("auth-service")
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 3_600_000))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("user_id", 2L)
+                .claim("scope", "ROLE_USER")
+                .build();
+        token = keyMaterial.sign(claimsSet);
+    }
+
+    @Benchmark
+    public boolean decodeRebuildingVerifier() throws Exception {
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        return signedJWT.verify(new MACVerifier(SIGNER_KEY.getBytes()));
+    }
+
+    @Benchmark
+    public boolean decodeSharedVerifier() throws Exception {
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        return keyMaterial.verify(signedJWT);
+    }
+
+    @Benchmark
+    public String signRebuildingSigner() throws JOSEException {
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(claimsSet.toJSONObject()));
+        jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
+        return jwsObject.serialize();
+    }
+
+    @Benchmark
+    public String signSharedSigner() throws JOSEException {
+        return keyMaterial.sign(claimsSet);
+    }
+}
@@ -0,0 +1,71 @@
+package com.acm.auth.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acm.auth.service.otp.HmacOtpHasher;
+import com.acm.auth.service.otp.SecureOtpGenerator;
+
+/**
+ * OTP generation and hashing. The *Contended variants share one generator and
+ * hasher between four threads, as the singleton beans are in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpBenchmark {
+
+    private static final String OTP = "042137";
+
+    private HmacOtpHasher hasher;
+    private SecureOtpGenerator generator;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        hasher = new HmacOtpHasher("benchmark-otp-hash-secret");
+        generator = new SecureOtpGenerator();
+        hash = hasher.hash(OTP);
+    }
+
+    @Benchmark
+    public String hash() {
+        return hasher.hash(OTP);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return hasher.matches(OTP, hash);
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean matchesContended() {
+        return hasher.matches(OTP, hash);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return generator.generate();
+    }
+}
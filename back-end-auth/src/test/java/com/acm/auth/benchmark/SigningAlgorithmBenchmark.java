@@ -0,0 +1,70 @@
+package com.acm.auth.benchmark;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Sign and verify cost of the supported token signing algorithms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({ "HS512", "ES256" })
+    public String algorithm;
+
+    private JwsKeyMaterial keyMaterial;
+    private JWTClaimsSet claimsSet;
+    private String token;
+
+    @Setup
+    public void setup() throws JOSEException {
+        keyMaterial = new JwsKeyMaterial(new MockEnvironment()
+                .withProperty("jwt.signing-algorithm", algorithm)
+                .withProperty("jwt.signer-key", JwsKeyMaterialBenchmark.SIGNER_KEY), Clock.systemUTC());
+        claimsSet = new JWTClaimsSet.Builder()
+                .subject("user1@acm.local")
+                .issuer("auth-service")
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 3_600_000))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("user_id", 2L)
+                .claim("scope", "ROLE_USER")
+                .build();
+        token = keyMaterial.sign(claimsSet);
+    }
+
+    @Benchmark
+    public String sign() throws JOSEException {
+        return keyMaterial.sign(claimsSet);
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return keyMaterial.verify(SignedJWT.parse(token));
+    }
+}
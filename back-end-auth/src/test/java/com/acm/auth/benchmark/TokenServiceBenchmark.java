@@ -0,0 +1,135 @@
+package com.acm.auth.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acm.auth.config.CustomJwtDecoder;
+import com.acm.auth.entity.Role;
+import com.acm.auth.entity.User;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.RoleRepository;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.JwtTokenService;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.token.TokenRevocationIndex;
+import com.acm.auth.service.user.UserSnapshot;
+import com.acm.auth.service.user.UserSnapshotCache;
+import com.nimbusds.jwt.SignedJWT;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token issue and verification paths as wired in the application, with a warm
+ * revocation index and epoch cache so no repository call is made per operation.
+ * The *Contended variants run the same operation from four threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private JwtTokenService jwtTokenService;
+    private CustomJwtDecoder customJwtDecoder;
+    private RoleRegistry roleRegistry;
+    private UserSnapshot user;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        InvalidatedTokenRepository invalidatedTokenRepository = mock(InvalidatedTokenRepository.class);
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenEpochById(anyLong())).thenReturn(Optional.of(0L));
+
+        JwsKeyMaterial keyMaterial = new JwsKeyMaterial(
+                new MockEnvironment().withProperty("jwt.signer-key", JwsKeyMaterialBenchmark.SIGNER_KEY),
+                Clock.systemUTC());
+        TokenRevocationIndex revocationIndex = new TokenRevocationIndex(invalidatedTokenRepository,
+                Clock.systemUTC(), 86400, 120, 60);
+        revocationIndex.sync();
+        TokenEpochService tokenEpochService = new TokenEpochService(userRepository,
+                new UserSnapshotCache(userRepository, new SimpleMeterRegistry(), 60, 50_000), 30, 100_000);
+
+        jwtTokenService = new JwtTokenService(keyMaterial, invalidatedTokenRepository, revocationIndex,
+                tokenEpochService);
+        ReflectionTestUtils.setField(jwtTokenService, "validDuration", 3600L);
+        ReflectionTestUtils.setField(jwtTokenService, "refreshableDuration", 86400L);
+        customJwtDecoder = new CustomJwtDecoder(keyMaterial, revocationIndex, tokenEpochService);
+
+        Role userRole = Role.builder().id(1L).code("USER").name("User").build();
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+        roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.reload();
+
+        user = UserSnapshot.from(User.builder()
+                .id(2L)
+                .email("user1@acm.local")
+                .username("user1")
+                .roles(Set.of(userRole))
+                .build());
+        token = generateToken();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenService.generateToken(user, roleRegistry.roleSet(user.roleIds()));
+    }
+
+    @Benchmark
+    public SignedJWT verifyToken() throws Exception {
+        return jwtTokenService.verifyToken(token, false);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return customJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateTokenContended() {
+        return jwtTokenService.generateToken(user, roleRegistry.roleSet(user.roleIds()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SignedJWT verifyTokenContended() throws Exception {
+        return jwtTokenService.verifyToken(token, false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Jwt decodeContended() {
+        return customJwtDecoder.decode(token);
+    }
+}
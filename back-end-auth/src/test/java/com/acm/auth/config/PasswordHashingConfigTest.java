@@ -0,0 +1,57 @@
+package com.acm.auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingConfigTest {
+
+    private final PasswordHashingConfig config = new PasswordHashingConfig();
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = config.passwordHashingExecutor(1, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void legacyBcryptHashMatchesAndIsUpgraded() {
+        PasswordEncoder encoder = config.passwordEncoder(executor, new SimpleMeterRegistry(), "argon2", 100, 4, 2);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void currentHashIsTaggedAndNotUpgraded() {
+        PasswordEncoder encoder = config.passwordEncoder(executor, new SimpleMeterRegistry(), "argon2", 100, 4, 2);
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("{argon2}"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void weakerBcryptHashIsUpgradedAfterStrengthIncrease() {
+        PasswordEncoder encoder = config.passwordEncoder(executor, new SimpleMeterRegistry(), "bcrypt", 100, 5, 2);
+
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+}
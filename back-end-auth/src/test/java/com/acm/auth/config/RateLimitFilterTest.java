@@ -0,0 +1,180 @@
+package com.acm.auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.acm.auth.service.ratelimit.BucketSpec;
+import com.acm.auth.service.ratelimit.LocalRateLimitBackend;
+import com.acm.auth.service.ratelimit.RateLimitBackend;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RateLimitBackend backend = new LocalRateLimitBackend(Clock.systemUTC(), 4, 1000);
+
+    @Test
+    void identifierLimitAppliesAcrossIpsAndCaseAndStopsTheChain() throws Exception {
+        RateLimitFilter filter = filter(backend);
+
+        assertEquals(200, signIn(filter, "10.0.0.1", "Alice@Example.com").getStatus());
+        assertEquals(200, signIn(filter, "10.0.0.2", " alice@example.com").getStatus());
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = post(filter, chain, "/api/v1/auth/sign-in", "10.0.0.3",
+                "{\"identifier\":\"ALICE@example.com\",\"password\":\"x\"}");
+
+        assertEquals(429, rejected.getStatus());
+        assertNull(chain.getRequest());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals("RATE_LIMITED", objectMapper.readTree(rejected.getContentAsByteArray()).get("code").asText());
+    }
+
+    @Test
+    void ipLimitAppliesPerEndpoint() throws Exception {
+        RateLimitFilter filter = filter(backend);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, signIn(filter, "10.0.0.9", "user" + i).getStatus());
+        }
+        assertEquals(429, signIn(filter, "10.0.0.9", "user3").getStatus());
+        assertEquals(200, post(filter, new MockFilterChain(), "/api/v1/auth/forgot-password", "10.0.0.9",
+                "{\"email\":\"user3@example.com\"}").getStatus());
+    }
+
+    @Test
+    void encodedPathsShareTheLimitOfTheDecodedPath() throws Exception {
+        RateLimitFilter filter = filter(backend);
+        String body = "{\"identifier\":\"erin\",\"password\":\"x\"}";
+
+        assertEquals(200, post(filter, new MockFilterChain(), "/api/v1/auth/sign%2Din", "10.0.0.5", body).getStatus());
+        assertEquals(200, post(filter, new MockFilterChain(), "/api/v1/auth//sign-in", "10.0.0.6", body).getStatus());
+        assertEquals(429, post(filter, new MockFilterChain(), "/api/v1/auth/sign%2din", "10.0.0.7", body).getStatus());
+    }
+
+    @Test
+    void oversizeBodiesAreRejectedInsteadOfSkippingTheIdentifierLimit() throws Exception {
+        RateLimitFilter filter = filter(backend);
+        String padded = "{\"identifier\":\"frank\",\"password\":\"x\"}" + " ".repeat(1024);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = post(filter, chain, "/api/v1/auth/sign-in", "10.0.0.8", padded);
+
+        assertEquals(413, rejected.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals("REQUEST_TOO_LARGE", objectMapper.readTree(rejected.getContentAsByteArray()).get("code").asText());
+    }
+
+    @Test
+    void bodyIsReplayedToTheController() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        String body = "{\"email\":\"bob@example.com\",\"otp\":\"123456\"}";
+
+        post(filter(backend), chain, "/api/v1/auth/forgot-password/verify-otp", "10.0.0.1", body);
+
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void replayedBodyCanBeReadThroughAReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        String body = "{\"email\":\"gina@example.com\"}";
+        post(filter(backend), chain, "/api/v1/auth/forgot-password", "10.0.0.1", body);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(buffer, 0, in.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void otherEndpointsAreNotLimited() throws Exception {
+        RateLimitFilter filter = filter(backend);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, post(filter, new MockFilterChain(), "/api/v1/auth/refresh", "10.0.0.1",
+                    "{\"token\":\"t\"}").getStatus());
+        }
+    }
+
+    @Test
+    void nodesSharingABackendShareTheLimit() throws Exception {
+        RateLimitFilter nodeA = filter(backend);
+        RateLimitFilter nodeB = filter(backend);
+
+        assertEquals(200, signIn(nodeA, "10.0.0.1", "carol").getStatus());
+        assertEquals(200, signIn(nodeB, "10.0.0.2", "carol").getStatus());
+        assertEquals(429, signIn(nodeA, "10.0.0.3", "carol").getStatus());
+        assertEquals(429, signIn(nodeB, "10.0.0.4", "carol").getStatus());
+    }
+
+    @Test
+    void failingBackendLetsRequestsThrough() throws Exception {
+        RateLimitFilter filter = filter((key, spec) -> {
+            throw new IllegalStateException("backend down");
+        });
+
+        assertEquals(200, signIn(filter, "10.0.0.1", "dave").getStatus());
+    }
+
+    private RateLimitFilter filter(RateLimitBackend backend) {
+        return new RateLimitFilter(backend, objectMapper, new SimpleMeterRegistry(),
+                new BucketSpec(3, 3), new BucketSpec(2, 2), 1024);
+    }
+
+    private static MockHttpServletResponse signIn(RateLimitFilter filter, String ip, String identifier)
+            throws ServletException, IOException {
+        return post(filter, new MockFilterChain(), "/api/v1/auth/sign-in", ip,
+                "{\"identifier\":\"" + identifier + "\",\"password\":\"x\"}");
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, MockFilterChain chain, String uri, String ip,
+            String body) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,92 @@
+package com.acm.auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routing between two in-memory H2 databases standing in for the primary and the replica.
+ */
+class ReplicaDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaTarget;
+
+    @BeforeEach
+    void setup() {
+        primary = database("primary");
+        replicaTarget = database("replica");
+        new JdbcTemplate(replicaTarget).execute("CREATE TABLE IF NOT EXISTS lag_status (lag_seconds BIGINT)");
+        new JdbcTemplate(replicaTarget).execute("DELETE FROM lag_status");
+        new JdbcTemplate(replicaTarget).execute("INSERT INTO lag_status VALUES (0)");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        ReplicaDataSource replica = replica(replicaTarget);
+        replica.checkLag();
+
+        assertTrue(replica.isAvailable());
+        assertEquals("replica", whereDoesItRun(replica, true));
+        assertEquals("primary", whereDoesItRun(replica, false));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhileReplicaLags() {
+        ReplicaDataSource replica = replica(replicaTarget);
+        new JdbcTemplate(replicaTarget).update("UPDATE lag_status SET lag_seconds = 30");
+        replica.checkLag();
+
+        assertFalse(replica.isAvailable());
+        assertEquals(30, replica.getLagSeconds());
+        assertEquals("primary", whereDoesItRun(replica, true));
+
+        new JdbcTemplate(replicaTarget).update("UPDATE lag_status SET lag_seconds = 1");
+        replica.checkLag();
+        assertEquals("replica", whereDoesItRun(replica, true));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnreachable() {
+        ReplicaDataSource replica = replica(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:missing-replica;IFEXISTS=TRUE"));
+        replica.checkLag();
+
+        assertFalse(replica.isAvailable());
+        assertEquals(-1, replica.getLagSeconds());
+        assertEquals("primary", whereDoesItRun(replica, true));
+    }
+
+    private ReplicaDataSource replica(DataSource target) {
+        return new ReplicaDataSource(target, primary, 5, "SELECT lag_seconds FROM lag_status", "lag_seconds");
+    }
+
+    private String whereDoesItRun(ReplicaDataSource replica, boolean readOnly) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replica);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(routing)
+                .queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + name + "-routing;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM marker");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
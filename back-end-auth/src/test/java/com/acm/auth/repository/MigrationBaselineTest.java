@@ -0,0 +1,57 @@
+package com.acm.auth.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A database created by ddl-auto before Flyway took over is baselined at V1 and
+ * only runs V2+; it has to end up with the same schema as a fresh one.
+ */
+class MigrationBaselineTest {
+
+    @Test
+    void baselinedDatabaseMatchesFreshOne() throws Exception {
+        JdbcDataSource fresh = dataSource();
+        Flyway.configure().dataSource(fresh).load().migrate();
+
+        JdbcDataSource legacy = dataSource();
+        new JdbcTemplate(legacy).execute(new ClassPathResource("db/migration/V1__baseline.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+        Flyway.configure().dataSource(legacy).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(columns(fresh), columns(legacy));
+        assertEquals(indexes(fresh), indexes(legacy));
+    }
+
+    private static JdbcDataSource dataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static List<String> columns(JdbcDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("SELECT CONCAT(table_name, '.', column_name, ' ', data_type, "
+                + "' ', is_nullable, ' ', COALESCE(column_default, '')) FROM information_schema.columns "
+                + "WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' "
+                + "ORDER BY table_name, column_name", String.class);
+    }
+
+    private static List<String> indexes(JdbcDataSource dataSource) {
+        // Names H2 generates for keys end in a counter that differs between databases
+        return new JdbcTemplate(dataSource).queryForList("SELECT CONCAT(table_name, '.', "
+                + "REGEXP_REPLACE(index_name, '_[0-9A-F]+$', '')) FROM information_schema.indexes "
+                + "WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' "
+                + "ORDER BY table_name, index_name", String.class);
+    }
+}
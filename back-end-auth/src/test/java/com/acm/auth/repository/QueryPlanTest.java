@@ -0,0 +1,61 @@
+package com.acm.auth.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * EXPLAIN for the SQL behind each repository query, against the schema built by
+ * the Flyway migrations. H2 plans stand in for MySQL's here: they show which index
+ * is chosen, though H2 does not report the sort the trailing created_at column saves.
+ */
+@DataJpaTest
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void userLookupsUseUniqueIndexes() {
+        assertUses("uk_users_email", "SELECT * FROM users WHERE email = 'a@acm.local'");
+        assertUses("uk_users_user_name", "SELECT * FROM users WHERE user_name = 'a'");
+        assertUses("uk_users_google_id", "SELECT * FROM users WHERE google_id = 'g'");
+        assertUses("primary_key", "SELECT token_epoch FROM users WHERE user_id = 1");
+    }
+
+    @Test
+    void adminListingSeeksOnStatusAndId() {
+        assertUses("idx_users_status_user_id",
+                "SELECT user_id FROM users WHERE user_id > 100 AND status = 'LOCKED' ORDER BY user_id LIMIT 51");
+    }
+
+    @Test
+    void activeOtpLookupSeeksOnEmailPurposeAndConsumedAt() {
+        assertUses("idx_otp_email_purpose_active",
+                "SELECT * FROM otp_verifications WHERE email = 'a@acm.local' AND purpose = 'REGISTER' "
+                        + "AND consumed_at IS NULL ORDER BY created_at DESC LIMIT 1");
+    }
+
+    @Test
+    void retentionScansWalkExpiryIndexes() {
+        assertUses("idx_otp_expires_at",
+                "SELECT otp_id FROM otp_verifications WHERE expires_at < CURRENT_TIMESTAMP "
+                        + "ORDER BY expires_at, otp_id LIMIT 500");
+        assertUses("idx_invalidated_tokens_expiry_time",
+                "SELECT id FROM invalidated_tokens WHERE expiry_time < CURRENT_TIMESTAMP "
+                        + "ORDER BY expiry_time, id LIMIT 500");
+        assertUses("idx_invalidated_tokens_expiry_time",
+                "SELECT id, expiry_time FROM invalidated_tokens WHERE expiry_time > CURRENT_TIMESTAMP");
+        assertUses("primary_key", "SELECT id FROM invalidated_tokens WHERE id IN ('a', 'b')");
+    }
+
+    private void assertUses(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+        assertFalse(plan.contains("tablescan"), plan);
+        assertTrue(plan.contains(index), plan);
+    }
+}
@@ -0,0 +1,114 @@
+package com.acm.auth.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.acm.auth.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Query count and latency of the sign-in identifier lookup against a large users
+ * table. The default dataset keeps the build fast; run with -Dperf.users=1000000
+ * for the full-size check.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Slf4j
+class UserRepositoryLookupTest {
+
+    private static final int USERS = Integer.getInteger("perf.users", 20_000);
+    private static final int LOOKUPS = 1_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[] { "user" + i, "user" + i + "@perf.local" });
+            if (rows.size() == 10_000 || i == USERS) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (user_name, email, status, token_epoch, version) "
+                        + "VALUES (?, ?, 'ACTIVE', 0, 0)", rows);
+                rows.clear();
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void signInLookupIsOneStatementPerIdentifier() {
+        statistics.clear();
+        assertEquals("user7@perf.local", userRepository.findByIdentifierWithRoles("user7@perf.local")
+                .map(User::getEmail).orElseThrow());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals("user7", userRepository.findByIdentifierWithRoles("user7").map(User::getUsername).orElseThrow());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void usernameAllocationIsOneStatementWhateverTheCollisions() {
+        statistics.clear();
+        assertEquals("user" + USERS, userRepository.findHighestNumberedUsername("user", "user%", 5).orElseThrow());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(userRepository.findHighestNumberedUsername("nobody", "nobody%", 7).isEmpty());
+    }
+
+    @Test
+    void lookupsUseUniqueIndexes() {
+        String emailPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT user_id FROM users WHERE email = 'user7@perf.local'", String.class);
+        String usernamePlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT user_id FROM users WHERE user_name = 'user7'", String.class);
+
+        assertFalse(emailPlan.contains("tableScan"), emailPlan);
+        assertFalse(usernamePlan.contains("tableScan"), usernamePlan);
+    }
+
+    @Test
+    void lookupLatencyStaysFlatOnLargeTable() {
+        lookupSpread(LOOKUPS);
+        long started = System.nanoTime();
+        lookupSpread(LOOKUPS);
+        long avgMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started) / LOOKUPS;
+
+        log.info("Identifier lookup over {} users: {} us average", USERS, avgMicros);
+        assertTrue(avgMicros < 5_000, "average lookup took " + avgMicros + " us");
+    }
+
+    private void lookupSpread(int count) {
+        for (int i = 0; i < count; i++) {
+            int id = 1 + (int) ((i * 7919L) % USERS);
+            assertTrue(userRepository.findByIdentifierWithRoles("user" + id + "@perf.local").isPresent());
+            entityManager.clear();
+        }
+    }
+}
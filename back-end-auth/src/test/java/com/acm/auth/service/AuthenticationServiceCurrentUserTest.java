@@ -0,0 +1,81 @@
+package com.acm.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.acm.auth.dto.response.AuthenticationResponse;
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.user.UserSnapshot;
+import com.acm.auth.service.user.UserSnapshotCache;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceCurrentUserTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @InjectMocks
+    private AuthenticationService authenticationService;
+
+    private final Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "HS512")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(3600))
+            .claim("user_id", 7L)
+            .claim("email", "user7@acm.local")
+            .claim("username", "user7")
+            .claim("role", "ADMIN")
+            .claim("scope", "ROLE_ADMIN ROLE_USER")
+            .build();
+
+    @Test
+    void currentUserComesFromClaimsAndCachedSnapshot() {
+        when(userSnapshotCache.getById(7L)).thenReturn(Optional.of(snapshot(3)));
+        when(roleRegistry.byCode("ADMIN")).thenReturn(Optional.of(
+                new RoleRegistry.RoleEntry(2L, "ADMIN", "Admin", null, 100, "/admin")));
+
+        AuthenticationResponse response = authenticationService.getCurrentUser(jwt);
+
+        assertEquals("user7@acm.local", response.getEmail());
+        assertEquals(List.of("ADMIN", "USER"), response.getRoles());
+        assertEquals("/admin", response.getRedirectTo());
+        assertEquals("Seven", response.getProfile().getFullName());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void eTagFollowsUserVersion() {
+        when(userSnapshotCache.getById(7L)).thenReturn(Optional.of(snapshot(3)), Optional.of(snapshot(3)),
+                Optional.of(snapshot(4)));
+
+        String first = authenticationService.currentUserETag(jwt);
+
+        assertEquals(first, authenticationService.currentUserETag(jwt));
+        assertNotEquals(first, authenticationService.currentUserETag(jwt));
+    }
+
+    private static UserSnapshot snapshot(long version) {
+        return new UserSnapshot(7L, "user7", "user7@acm.local", null, "Seven", UserStatus.ACTIVE, null, 0L,
+                version, List.of(1L, 2L));
+    }
+}
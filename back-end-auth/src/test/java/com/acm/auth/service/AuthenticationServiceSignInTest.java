@@ -0,0 +1,93 @@
+package com.acm.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.acm.auth.dto.request.AuthenticationRequest;
+import com.acm.auth.entity.Role;
+import com.acm.auth.entity.User;
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.user.LoginAttemptTracker;
+import com.acm.auth.service.user.UserSnapshotCache;
+
+class AuthenticationServiceSignInTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final LoginAttemptTracker loginAttemptTracker = new LoginAttemptTracker(mock(JdbcTemplate.class),
+            Clock.systemUTC(), 2, 60, 3600, 1, 100);
+    private final UserSnapshotCache userSnapshotCache = mock(UserSnapshotCache.class);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private final AuthenticationService authenticationService = new AuthenticationService(userRepository,
+            passwordEncoder, mock(JwtTokenService.class), mock(TokenEpochService.class),
+            userSnapshotCache, roleRegistry, loginAttemptTracker);
+
+    private final User user = User.builder().id(5L).username("eve").password("hash").build();
+
+    @BeforeEach
+    void setup() {
+        when(userRepository.findByIdentifierWithRoles("eve")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void lockedAccountIsRejectedWithoutCheckingThePassword() {
+        user.setLockedUntil(LocalDateTime.now(ZoneOffset.UTC).plusMinutes(5));
+
+        AppException e = assertThrows(AppException.class, () -> authenticationService.authenticate(request()));
+
+        assertEquals(ErrorCode.ACCOUNT_TEMPORARILY_LOCKED, e.getErrorCode());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void repeatedWrongPasswordsStopReachingTheEncoder() {
+        when(passwordEncoder.matches(any(), any())).thenReturn(false);
+
+        for (int i = 0; i < 2; i++) {
+            AppException e = assertThrows(AppException.class, () -> authenticationService.authenticate(request()));
+            assertEquals(ErrorCode.INVALID_CREDENTIALS, e.getErrorCode());
+        }
+        AppException e = assertThrows(AppException.class, () -> authenticationService.authenticate(request()));
+
+        assertEquals(ErrorCode.ACCOUNT_TEMPORARILY_LOCKED, e.getErrorCode());
+        verify(passwordEncoder, times(2)).matches(any(), any());
+    }
+
+    @Test
+    void rehashEvictsTheSnapshotInsteadOfCachingTheOldVersion() {
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRoles(Set.of(Role.builder().id(1L).build()));
+        when(passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash")).thenReturn(true);
+        when(passwordEncoder.encode(any())).thenReturn("new-hash");
+        when(userRepository.updatePasswordHash(5L, "hash", "new-hash")).thenReturn(1);
+        when(roleRegistry.roleSet(any())).thenReturn(RoleRegistry.RoleSet.EMPTY);
+
+        authenticationService.authenticate(request());
+
+        verify(userSnapshotCache).evict(5L);
+        verify(userSnapshotCache, never()).put(any());
+    }
+
+    private static AuthenticationRequest request() {
+        return AuthenticationRequest.builder().identifier("eve").password("wrong").build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.acm.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenEpochService;
+import com.acm.auth.service.token.TokenRevocationIndex;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class JwtTokenServiceTest {
+
+    private static final String SIGNER_KEY = "z0B8QFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnUf3=";
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository = mock(InvalidatedTokenRepository.class);
+    private final TokenEpochService tokenEpochService = mock(TokenEpochService.class);
+    private final Clock clock = Clock.systemUTC();
+    private final TokenRevocationIndex tokenRevocationIndex = new TokenRevocationIndex(invalidatedTokenRepository,
+            clock, 3600, 120, 60);
+    private final JwsKeyMaterial jwsKeyMaterial = new JwsKeyMaterial(
+            new MockEnvironment().withProperty("jwt.signer-key", SIGNER_KEY), clock);
+    private JwtTokenService jwtTokenService;
+
+    @BeforeEach
+    void setup() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        when(tokenEpochService.isCurrent(any())).thenReturn(true);
+        tokenRevocationIndex.sync();
+        jwtTokenService = new JwtTokenService(jwsKeyMaterial, invalidatedTokenRepository, tokenRevocationIndex,
+                tokenEpochService);
+        ReflectionTestUtils.setField(jwtTokenService, "validDuration", 3600L);
+        ReflectionTestUtils.setField(jwtTokenService, "refreshableDuration", 3600L);
+    }
+
+    @Test
+    void refreshTokenUsedOnAnotherNodeIsRejectedBeforeTheIndexCatchesUp() throws Exception {
+        String jwtId = UUID.randomUUID().toString();
+        String token = token(jwtId);
+        jwtTokenService.verifyToken(token, true);
+
+        // Refreshed on another node; this node's warm index has not synced it yet
+        when(invalidatedTokenRepository.existsById(jwtId)).thenReturn(true);
+
+        AppException e = assertThrows(AppException.class, () -> jwtTokenService.verifyToken(token, true));
+        assertEquals(ErrorCode.UNAUTHENTICATED, e.getErrorCode());
+    }
+
+    @Test
+    void accessTokensAreAnsweredByTheWarmIndex() throws Exception {
+        String jwtId = UUID.randomUUID().toString();
+
+        jwtTokenService.verifyToken(token(jwtId), false);
+
+        verify(invalidatedTokenRepository, never()).existsById(any());
+    }
+
+    private String token(String jwtId) throws Exception {
+        return jwsKeyMaterial.sign(new JWTClaimsSet.Builder()
+                .subject("user@acm.local")
+                .jwtID(jwtId)
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(600)))
+                .claim("user_id", 7L)
+                .build());
+    }
+}
@@ -24,6 +24,7 @@ import com.acm.auth.enums.UserStatus;
 import com.acm.auth.repository.UserRepository;
 import com.acm.auth.service.ResetTokenService.ResetTokenPayload;
 import com.acm.auth.service.otp.OtpService;
+import com.acm.auth.service.token.TokenEpochService;
 
 @ExtendWith(MockitoExtension.class)
 class PasswordResetServiceTest {
@@ -40,11 +41,15 @@ class PasswordResetServiceTest {
     @Mock
     private ResetTokenService resetTokenService;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
     private PasswordResetService passwordResetService;
 
     @BeforeEach
     void setup() {
-        passwordResetService = new PasswordResetService(userRepository, passwordEncoder, otpService, resetTokenService);
+        passwordResetService = new PasswordResetService(userRepository, passwordEncoder, otpService, resetTokenService,
+                tokenEpochService);
     }
 
     @Test
@@ -93,5 +98,6 @@ class PasswordResetServiceTest {
         assertNotNull(response);
         assertEquals("hashed", user.getPassword());
         verify(resetTokenService, times(1)).invalidateToken(eq("jwt-id"), any(Date.class));
+        verify(tokenEpochService, times(1)).revokeAll(10L);
     }
 }
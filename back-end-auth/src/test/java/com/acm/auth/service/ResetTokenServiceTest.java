@@ -0,0 +1,64 @@
+package com.acm.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.service.token.JwsKeyMaterial;
+import com.acm.auth.service.token.TokenRevocationIndex;
+
+class ResetTokenServiceTest {
+
+    private static final String SIGNER_KEY = "z0B8QFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnUf3=";
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository = mock(InvalidatedTokenRepository.class);
+    private final Clock clock = Clock.systemUTC();
+    private final TokenRevocationIndex tokenRevocationIndex = new TokenRevocationIndex(invalidatedTokenRepository,
+            clock, 3600, 120, 60);
+    private ResetTokenService resetTokenService;
+
+    @BeforeEach
+    void setup() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        tokenRevocationIndex.sync();
+        resetTokenService = new ResetTokenService(invalidatedTokenRepository, tokenRevocationIndex,
+                new JwsKeyMaterial(new MockEnvironment().withProperty("jwt.signer-key", SIGNER_KEY), clock), clock);
+        ReflectionTestUtils.setField(resetTokenService, "validMinutes", 10L);
+    }
+
+    @Test
+    void tokenUsedOnAnotherNodeIsRejectedBeforeTheIndexCatchesUp() {
+        String token = resetTokenService.issueToken(7L, "user@acm.local");
+        String jwtId = resetTokenService.verifyToken(token).jwtId();
+
+        // Written by another node; this node's warm index has not synced it yet
+        when(invalidatedTokenRepository.existsById(jwtId)).thenReturn(true);
+
+        AppException e = assertThrows(AppException.class, () -> resetTokenService.verifyToken(token));
+        assertEquals(ErrorCode.RESET_TOKEN_INVALID, e.getErrorCode());
+    }
+
+    @Test
+    void tokenUsedOnThisNodeIsRejectedFromTheIndex() {
+        String token = resetTokenService.issueToken(7L, "user@acm.local");
+        ResetTokenService.ResetTokenPayload payload = resetTokenService.verifyToken(token);
+
+        resetTokenService.invalidateToken(payload.jwtId(), payload.expiresAt());
+
+        assertThrows(AppException.class, () -> resetTokenService.verifyToken(token));
+        verify(invalidatedTokenRepository, times(1)).existsById(payload.jwtId());
+    }
+}
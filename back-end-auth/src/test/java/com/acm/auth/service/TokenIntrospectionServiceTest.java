@@ -0,0 +1,98 @@
+package com.acm.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acm.auth.dto.request.BatchIntrospectRequest;
+import com.acm.auth.dto.response.BatchIntrospectResponse;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.service.token.TokenRevocationIndex;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    @Mock
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    private ExecutorService executor;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        service = new TokenIntrospectionService(jwtTokenService, tokenRevocationIndex, executor);
+        ReflectionTestUtils.setField(service, "maxTokens", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void introspectReturnsResultsInRequestOrderWithOneRevocationLookup() {
+        when(jwtTokenService.verifyWithoutJtiCheck("good")).thenReturn(Optional.of(token("jti-1", 7L)));
+        when(jwtTokenService.verifyWithoutJtiCheck("revoked")).thenReturn(Optional.of(token("jti-2", 8L)));
+        when(jwtTokenService.verifyWithoutJtiCheck("forged")).thenReturn(Optional.empty());
+        when(tokenRevocationIndex.revokedAmong(anyCollection())).thenReturn(Set.of("jti-2"));
+
+        BatchIntrospectResponse response = service.introspect(BatchIntrospectRequest.builder()
+                .tokens(List.of("good", "revoked", "forged"))
+                .build());
+
+        assertEquals(3, response.getResults().size());
+        assertTrue(response.getResults().get(0).isActive());
+        assertEquals(7L, response.getResults().get(0).getUserId());
+        assertEquals("ROLE_USER", response.getResults().get(0).getScope());
+        assertFalse(response.getResults().get(1).isActive());
+        assertFalse(response.getResults().get(2).isActive());
+        verify(tokenRevocationIndex, times(1)).revokedAmong(List.of("jti-1", "jti-2"));
+    }
+
+    @Test
+    void introspectRejectsOversizedBatch() {
+        AppException ex = assertThrows(AppException.class, () -> service.introspect(BatchIntrospectRequest.builder()
+                .tokens(List.of("a", "b", "c", "d"))
+                .build()));
+
+        assertEquals(ErrorCode.INTROSPECT_BATCH_TOO_LARGE, ex.getErrorCode());
+        verifyNoInteractions(jwtTokenService);
+    }
+
+    private static SignedJWT token(String jwtId, long userId) {
+        return new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), new JWTClaimsSet.Builder()
+                .jwtID(jwtId)
+                .subject("user@example.com")
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .claim("user_id", userId)
+                .claim("scope", "ROLE_USER")
+                .build());
+    }
+}
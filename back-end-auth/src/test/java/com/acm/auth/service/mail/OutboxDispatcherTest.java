@@ -0,0 +1,158 @@
+package com.acm.auth.service.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acm.auth.entity.EmailOutbox;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.enums.OutboxStatus;
+import com.acm.auth.repository.EmailOutboxRepository;
+import com.acm.auth.service.impl.OutboxEmailService;
+import com.acm.auth.service.impl.SmtpEmailService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Workers update rows from their own threads, so the test runs without the
+ * enclosing test transaction and clears the table itself.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private ExecutorService executor;
+    private JavaMailSenderImpl mailSender;
+    private final OutboxPayloadCipher cipher = new OutboxPayloadCipher("test-outbox-key");
+    private OutboxEmailService outboxEmailService;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        SmtpEmailService smtpEmailService = new SmtpEmailService(mailSender,
+                new SmtpTransportPool(mailSender, new SimpleMeterRegistry(), 2, 100, 30_000, 2_000, 5_000));
+        ReflectionTestUtils.setField(smtpEmailService, "from", "no-reply@acm.local");
+        ReflectionTestUtils.setField(smtpEmailService, "fromName", "Auth Service");
+
+        executor = Executors.newFixedThreadPool(2);
+        outboxEmailService = new OutboxEmailService(emailOutboxRepository, smtpEmailService, cipher, clock);
+        dispatcher = new OutboxDispatcher(emailOutboxRepository, smtpEmailService, cipher, executor, clock,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseSeconds", 5L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxSeconds", 900L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 300L);
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.shutdownNow();
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void deliversQueuedMailInBatchesAndClearsBodies() {
+        for (int i = 0; i < 15; i++) {
+            outboxEmailService.sendOtpEmail("user" + i + "@acm.local", "12345" + (i % 10), OtpPurpose.REGISTER, 300);
+        }
+
+        dispatcher.drain();
+
+        assertEquals(15, greenMail.getReceivedMessages().length);
+        List<EmailOutbox> rows = emailOutboxRepository.findAll();
+        assertTrue(rows.stream().allMatch(row -> row.getStatus() == OutboxStatus.SENT));
+        assertTrue(rows.stream().allMatch(row -> row.getBody() == null && row.getFinishedAt() != null));
+        assertEquals(0, dispatcher.dispatchBatch());
+    }
+
+    @Test
+    void queuedBodiesAreEncryptedForTheirRecipient() {
+        outboxEmailService.sendOtpEmail("alice@acm.local", "482913", OtpPurpose.REGISTER, 300);
+
+        EmailOutbox queued = emailOutboxRepository.findAll().get(0);
+        assertFalse(queued.getBody().contains("482913"));
+        assertTrue(cipher.decrypt(queued.getBody(), "alice@acm.local").contains("482913"));
+        assertThrows(IllegalStateException.class, () -> cipher.decrypt(queued.getBody(), "mallory@acm.local"));
+        assertThrows(IllegalStateException.class,
+                () -> new OutboxPayloadCipher("another-key").decrypt(queued.getBody(), "alice@acm.local"));
+    }
+
+    @Test
+    void retriesWithBackoffThenDeadLettersWhenTheRelayIsDown() {
+        mailSender.setPort(1);
+        outboxEmailService.sendOtpEmail("down@acm.local", "654321", OtpPurpose.RESET_PASSWORD, 300);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+        EmailOutbox retried = emailOutboxRepository.findAll().get(0);
+        assertEquals(OutboxStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now(clock)));
+        assertNotNull(retried.getLastError());
+
+        // Not due yet, so the next run leaves it alone
+        assertEquals(0, dispatcher.dispatchBatch());
+
+        retried.setNextAttemptAt(LocalDateTime.now(clock).minusSeconds(1));
+        emailOutboxRepository.save(retried);
+        assertEquals(1, dispatcher.dispatchBatch());
+        EmailOutbox dead = emailOutboxRepository.findAll().get(0);
+        assertEquals(OutboxStatus.DEAD, dead.getStatus());
+        assertEquals(2, dead.getAttempts());
+        assertNull(dead.getBody());
+    }
+
+    @Test
+    void deadLettersMailThatExpiredBeforeDelivery() {
+        outboxEmailService.sendOtpEmail("late@acm.local", "111111", OtpPurpose.REGISTER, 0);
+        EmailOutbox queued = emailOutboxRepository.findAll().get(0);
+        queued.setExpiresAt(LocalDateTime.now(clock).minusSeconds(1));
+        emailOutboxRepository.save(queued);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        assertEquals(OutboxStatus.DEAD, emailOutboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToTheCap() {
+        assertTrue(dispatcher.backoff(1) >= 5_000 && dispatcher.backoff(1) <= 6_000);
+        assertTrue(dispatcher.backoff(3) >= 20_000 && dispatcher.backoff(3) <= 24_000);
+        assertTrue(dispatcher.backoff(20) >= 900_000 && dispatcher.backoff(20) <= 1_080_000);
+    }
+}
@@ -0,0 +1,120 @@
+package com.acm.auth.service.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void sendsSeveralMessagesPerConnectionAndKeepsTheLastOneOpen() throws Exception {
+        SmtpTransportPool pool = pool(2, 4, 30_000, 30_000);
+
+        Map<MimeMessage, Exception> failed = pool.sendAll(messages(10));
+
+        assertTrue(failed.isEmpty());
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertEquals(3, pool.getOpened());
+        assertEquals(1, pool.getIdle());
+        assertEquals(0, pool.getActive());
+        assertEquals(10, meterRegistry.get("mail.smtp.send").tag("outcome", "sent").timer().count());
+
+        pool.sendAll(messages(1));
+        assertEquals(3, pool.getOpened());
+        pool.close();
+    }
+
+    @Test
+    void evictsIdleConnections() throws Exception {
+        SmtpTransportPool pool = pool(2, 100, 0, 30_000);
+        pool.sendAll(messages(1));
+        assertEquals(1, pool.getIdle());
+
+        pool.evictIdle();
+
+        assertEquals(0, pool.getIdle());
+        pool.sendAll(messages(1));
+        assertEquals(2, pool.getOpened());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void capsConnectionsAndFailsWhenNoneFreesUpInTime() throws Exception {
+        SmtpTransportPool pool = pool(1, 100, 30_000, 30_000);
+        SmtpTransportPool.Connection held = pool.borrow();
+
+        Map<MimeMessage, Exception> failed = pool.sendAll(messages(2));
+        assertEquals(2, failed.size());
+        assertEquals(1.0, meterRegistry.get("mail.smtp.pool.utilization").gauge().value());
+
+        pool.release(held, true);
+        assertTrue(pool.sendAll(messages(2)).isEmpty());
+        assertEquals(1, pool.getOpened());
+        pool.close();
+    }
+
+    @Test
+    void retriesOnAFreshConnectionWhenAPooledOneWasDropped() throws Exception {
+        SmtpTransportPool pool = pool(1, 100, 30_000, 30_000);
+        pool.sendAll(messages(1));
+
+        // Restarting the relay drops the pooled connection without the pool noticing
+        greenMail.reset();
+        Map<MimeMessage, Exception> failed = pool.sendAll(messages(3));
+
+        assertTrue(failed.isEmpty());
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(2, pool.getOpened());
+        pool.close();
+    }
+
+    private SmtpTransportPool pool(int maxConnections, int maxMessagesPerConnection, long maxIdleMs,
+            long validateAfterIdleMs) {
+        return new SmtpTransportPool(mailSender, meterRegistry, maxConnections, maxMessagesPerConnection,
+                maxIdleMs, validateAfterIdleMs, 50);
+    }
+
+    private List<MimeMessage> messages(int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            message.setFrom(new InternetAddress("no-reply@acm.local"));
+            message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + i + "@acm.local"));
+            message.setSubject("Your verification code");
+            message.setText("Your verification code is: 12345" + i);
+            message.saveChanges();
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,126 @@
+package com.acm.auth.service.maintenance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.entity.InvalidatedToken;
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.repository.EmailOutboxRepository;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.OtpVerificationRepository;
+
+@DataJpaTest
+class RetentionPurgeJobTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private OtpVerificationRepository otpVerificationRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RetentionPurgeJob job;
+
+    @BeforeEach
+    void setup() {
+        job = new RetentionPurgeJob(invalidatedTokenRepository, otpVerificationRepository, emailOutboxRepository,
+                new TransactionTemplate(transactionManager), Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(job, "refreshableDuration", 3600L);
+        ReflectionTestUtils.setField(job, "otpGraceHours", 24L);
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        ReflectionTestUtils.setField(job, "chunkPauseMs", 0L);
+        ReflectionTestUtils.setField(job, "maxChunksPerRun", 10);
+    }
+
+    @Test
+    void invalidatedTokensArePurgedInChunksUpToTheCutoff() {
+        Instant cutoff = NOW.minusSeconds(3600);
+        List<InvalidatedToken> tokens = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            tokens.add(token("expired-" + i, cutoff.minusSeconds(i)));
+        }
+        tokens.add(token("at-cutoff", cutoff));
+        tokens.add(token("in-refresh-window", cutoff.plusSeconds(1)));
+        invalidatedTokenRepository.saveAllAndFlush(tokens);
+
+        RetentionPurgeJob.PurgeResult result = job.purgeInvalidatedTokens();
+
+        assertEquals(5, result.deleted());
+        assertEquals(3, result.chunks());
+        assertEquals(2, invalidatedTokenRepository.count());
+        assertTrue(invalidatedTokenRepository.existsById("at-cutoff"));
+        assertTrue(invalidatedTokenRepository.existsById("in-refresh-window"));
+    }
+
+    @Test
+    void otpVerificationsArePurgedInChunksUpToTheCutoff() {
+        LocalDateTime cutoff = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(24);
+        List<OtpVerification> codes = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            codes.add(otp(cutoff.minusMinutes(i)));
+        }
+        UUID atCutoff = otpVerificationRepository.saveAndFlush(otp(cutoff)).getId();
+        UUID withinGrace = otpVerificationRepository.saveAndFlush(otp(cutoff.plusMinutes(1))).getId();
+        otpVerificationRepository.saveAllAndFlush(codes);
+
+        RetentionPurgeJob.PurgeResult result = job.purgeOtpVerifications();
+
+        assertEquals(4, result.deleted());
+        assertEquals(2, result.chunks());
+        assertEquals(2, otpVerificationRepository.count());
+        assertTrue(otpVerificationRepository.existsById(atCutoff));
+        assertTrue(otpVerificationRepository.existsById(withinGrace));
+    }
+
+    @Test
+    void nothingToPurgeTakesNoChunks() {
+        invalidatedTokenRepository.saveAndFlush(token("live", NOW.plus(Duration.ofMinutes(5))));
+
+        RetentionPurgeJob.PurgeResult result = job.purgeInvalidatedTokens();
+
+        assertEquals(0, result.deleted());
+        assertEquals(0, result.chunks());
+        assertEquals(1, invalidatedTokenRepository.count());
+    }
+
+    private static InvalidatedToken token(String id, Instant expiry) {
+        return InvalidatedToken.builder().id(id).expiryTime(Date.from(expiry)).build();
+    }
+
+    private static OtpVerification otp(LocalDateTime expiresAt) {
+        return OtpVerification.builder()
+                .email("bob@acm.local")
+                .purpose(OtpPurpose.REGISTER)
+                .otpHash("hash")
+                .createdAt(expiresAt.minusMinutes(5))
+                .expiresAt(expiresAt)
+                .maxAttempts(5)
+                .build();
+    }
+}
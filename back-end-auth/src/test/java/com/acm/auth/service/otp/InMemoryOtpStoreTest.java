@@ -0,0 +1,137 @@
+package com.acm.auth.service.otp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.support.MutableClock;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryOtpStoreTest {
+
+    @Mock
+    private OtpStore database;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @Test
+    void replacesAndConsumesWithoutTouchingTheDatabase() {
+        InMemoryOtpStore store = store(null);
+        OtpVerification first = challenge("a@acm.local", 5);
+        store.replace(Optional.empty(), first);
+        assertNotNull(first.getId());
+
+        OtpVerification active = store.findActive("a@acm.local", OtpPurpose.REGISTER).orElseThrow();
+        OtpVerification second = challenge("a@acm.local", 5);
+        store.replace(Optional.of(active), second);
+
+        assertNotNull(active.getConsumedAt());
+        assertEquals(second.getId(), store.findActive("a@acm.local", OtpPurpose.REGISTER).orElseThrow().getId());
+        assertTrue(store.findActive("a@acm.local", OtpPurpose.RESET_PASSWORD).isEmpty());
+
+        store.consume(second, LocalDateTime.now(clock));
+        assertTrue(store.findActive("a@acm.local", OtpPurpose.REGISTER).isEmpty());
+        assertEquals(0, store.size());
+        verifyNoInteractions(database);
+    }
+
+    @Test
+    void consumesOnlyALiveChallengeWithTheMatchingHash() {
+        InMemoryOtpStore store = store(null);
+        store.replace(Optional.empty(), challenge("a@acm.local", 5));
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        assertFalse(store.consumeIfMatches("a@acm.local", OtpPurpose.REGISTER, "other", now));
+        assertFalse(store.consumeIfMatches("a@acm.local", OtpPurpose.REGISTER, "hash", now.plusMinutes(6)));
+        assertTrue(store.consumeIfMatches("a@acm.local", OtpPurpose.REGISTER, "hash", now));
+        assertFalse(store.consumeIfMatches("a@acm.local", OtpPurpose.REGISTER, "hash", now));
+    }
+
+    @Test
+    void keepsExpiredChallengesForTheRetentionThenDropsThem() {
+        InMemoryOtpStore store = store(null);
+        store.replace(Optional.empty(), challenge("a@acm.local", 5));
+
+        clock.advance(Duration.ofMinutes(6));
+        store.expire();
+        assertTrue(store.findActive("a@acm.local", OtpPurpose.REGISTER).isPresent());
+
+        clock.advance(Duration.ofMinutes(5));
+        store.expire();
+        assertTrue(store.findActive("a@acm.local", OtpPurpose.REGISTER).isEmpty());
+    }
+
+    @Test
+    void countsConcurrentWrongGuessesExactly() throws Exception {
+        InMemoryOtpStore store = store(null);
+        store.replace(Optional.empty(), challenge("a@acm.local", 1_000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> store.recordFailedAttempt(
+                    store.findActive("a@acm.local", OtpPurpose.REGISTER).orElseThrow(), LocalDateTime.now(clock)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, store.findActive("a@acm.local", OtpPurpose.REGISTER).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void writesThroughAndReloadsMissesFromTheDatabase() {
+        InMemoryOtpStore store = store(database);
+        OtpVerification persisted = challenge("b@acm.local", 5);
+        persisted.setId(UUID.randomUUID());
+        when(database.findActive("b@acm.local", OtpPurpose.REGISTER)).thenReturn(Optional.of(persisted));
+
+        OtpVerification loaded = store.findActive("b@acm.local", OtpPurpose.REGISTER).orElseThrow();
+        assertEquals(persisted.getId(), loaded.getId());
+        store.findActive("b@acm.local", OtpPurpose.REGISTER);
+        verify(database).findActive("b@acm.local", OtpPurpose.REGISTER);
+
+        assertEquals(1, store.recordFailedAttempt(loaded, LocalDateTime.now(clock)));
+        verify(database).recordFailedAttempt(loaded, LocalDateTime.now(clock));
+        store.consume(loaded, LocalDateTime.now(clock));
+        verify(database).consume(loaded, LocalDateTime.now(clock));
+        verify(database, never()).replace(Optional.empty(), loaded);
+    }
+
+    private InMemoryOtpStore store(OtpStore writeThrough) {
+        return new InMemoryOtpStore(clock, 4, Duration.ofSeconds(1), Duration.ofMinutes(5), writeThrough);
+    }
+
+    private OtpVerification challenge(String email, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return OtpVerification.builder()
+                .email(email)
+                .purpose(OtpPurpose.REGISTER)
+                .otpHash("hash")
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(5))
+                .maxAttempts(maxAttempts)
+                .lastSentAt(now)
+                .resendCount(1)
+                .build();
+    }
+}
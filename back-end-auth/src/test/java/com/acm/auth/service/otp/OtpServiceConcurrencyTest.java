@@ -0,0 +1,167 @@
+package com.acm.auth.service.otp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import com.acm.auth.entity.OtpVerification;
+import com.acm.auth.enums.OtpPurpose;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.repository.OtpVerificationRepository;
+import com.acm.auth.service.EmailService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Concurrent guesses against one challenge in otp_verifications, through the JPA
+ * store. Requests run on their own threads and transactions, so the test runs
+ * without the enclosing test transaction and clears the table itself.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OtpServiceConcurrencyTest {
+
+    private static final String EMAIL = "race@acm.local";
+    private static final String CODE = "246810";
+    private static final int THREADS = 8;
+
+    @Autowired
+    private OtpVerificationRepository otpVerificationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private Statistics statistics;
+    private OtpService otpService;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        OtpGenerator generator = () -> CODE;
+        OtpService target = new OtpService(new JpaOtpStore(otpVerificationRepository, entityManager), generator,
+                new HmacOtpHasher("test-secret"), mock(EmailService.class), Clock.systemDefaultZone());
+        ReflectionTestUtils.setField(target, "expiryMinutes", 5L);
+        ReflectionTestUtils.setField(target, "maxAttempts", 5);
+        ReflectionTestUtils.setField(target, "resendCooldownSeconds", 60L);
+
+        // Applies the service's own @Transactional attributes, rollback rules included
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        otpService = (OtpService) proxyFactory.getProxy();
+        otpService.sendOtp(EMAIL, null, OtpPurpose.REGISTER, false);
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.shutdownNow();
+        otpVerificationRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentWrongGuessesGetExactlyMaxAttempts() throws Exception {
+        Map<String, AtomicInteger> outcomes = race(64, i -> "00000" + (i % 10));
+
+        OtpVerification challenge = otpVerificationRepository.findAll().get(0);
+        assertEquals(5, challenge.getAttempts());
+        assertNotNull(challenge.getConsumedAt());
+        assertEquals(0, count(outcomes, "OK"));
+        // The guess that takes the last attempt is refused outright; guesses arriving
+        // after the challenge is used up find none (OTP_INVALID) or lose the race
+        assertTrue(count(outcomes, "OTP_TOO_MANY_ATTEMPTS") >= 1);
+        assertEquals(64, count(outcomes, "OTP_INVALID") + count(outcomes, "OTP_TOO_MANY_ATTEMPTS"));
+    }
+
+    @Test
+    void concurrentCorrectGuessesConsumeTheChallengeOnce() throws Exception {
+        Map<String, AtomicInteger> outcomes = race(32, i -> CODE);
+
+        assertEquals(1, count(outcomes, "OK"));
+        assertEquals(31, count(outcomes, "OTP_INVALID"));
+        assertNotNull(otpVerificationRepository.findAll().get(0).getConsumedAt());
+    }
+
+    @Test
+    void correctCodeIsOneStatementAndWrongCodeIsThree() {
+        statistics.clear();
+        assertEquals("OTP_INVALID", verify("999999"));
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals("OK", verify(CODE));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Map<String, AtomicInteger> race(int requests, IntFunction<String> guess)
+            throws Exception {
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            String code = guess.apply(i);
+            Callable<Void> request = () -> {
+                start.await();
+                outcomes.computeIfAbsent(verify(code), k -> new AtomicInteger()).incrementAndGet();
+                return null;
+            };
+            futures.add(executor.submit(request));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return outcomes;
+    }
+
+    private String verify(String code) {
+        try {
+            otpService.verifyOtp(EMAIL, OtpPurpose.REGISTER, code);
+            return "OK";
+        } catch (AppException e) {
+            return e.getErrorCode().name();
+        }
+    }
+
+    private static int count(Map<String, AtomicInteger> outcomes, String outcome) {
+        AtomicInteger count = outcomes.get(outcome);
+        return count == null ? 0 : count.get();
+    }
+}
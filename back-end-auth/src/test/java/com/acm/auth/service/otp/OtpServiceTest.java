@@ -25,6 +25,8 @@ import com.acm.auth.exception.ErrorCode;
 import com.acm.auth.repository.OtpVerificationRepository;
 import com.acm.auth.service.EmailService;
 
+import jakarta.persistence.EntityManager;
+
 @ExtendWith(MockitoExtension.class)
 class OtpServiceTest {
 
@@ -40,13 +42,21 @@ class OtpServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private EntityManager entityManager;
+
     private Clock clock;
     private OtpService otpService;
 
     @BeforeEach
     void setup() {
         clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
-        otpService = new OtpService(otpVerificationRepository, otpGenerator, otpHasher, emailService, clock);
+        otpService = new OtpService(
+                new JpaOtpStore(otpVerificationRepository, entityManager),
+                otpGenerator,
+                otpHasher,
+                emailService,
+                clock);
 
         ReflectionTestUtils.setField(otpService, "expiryMinutes", 5L);
         ReflectionTestUtils.setField(otpService, "maxAttempts", 5);
@@ -73,6 +83,7 @@ class OtpServiceTest {
                 .thenReturn(java.util.Optional.of(existing));
         when(otpGenerator.generate()).thenReturn("123456");
         when(otpHasher.hash("123456")).thenReturn("new-hash");
+        when(otpVerificationRepository.consume(any(), any())).thenReturn(1);
         when(otpVerificationRepository.save(any(OtpVerification.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         otpService.sendOtp("test@example.com", 1L, OtpPurpose.REGISTER, true);
@@ -82,28 +93,16 @@ class OtpServiceTest {
     }
 
     @Test
-    void verifyOtpSuccessConsumesOtp() {
-        LocalDateTime now = LocalDateTime.now(clock);
-        OtpVerification otp = OtpVerification.builder()
-                .email("test@example.com")
-                .purpose(OtpPurpose.REGISTER)
-                .otpHash("hash")
-                .createdAt(now.minusMinutes(1))
-                .expiresAt(now.plusMinutes(4))
-                .attempts(0)
-                .maxAttempts(5)
-                .build();
-
-        when(otpVerificationRepository
-                .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc("test@example.com", OtpPurpose.REGISTER))
-                .thenReturn(java.util.Optional.of(otp));
-        when(otpHasher.matches("123456", "hash")).thenReturn(true);
-        when(otpVerificationRepository.save(any(OtpVerification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    void verifyOtpSuccessConsumesOtpInOneUpdate() {
+        when(otpHasher.hash("123456")).thenReturn("hash");
+        when(otpVerificationRepository.consumeIfMatches(eq("test@example.com"), eq(OtpPurpose.REGISTER), eq("hash"),
+                any(LocalDateTime.class))).thenReturn(1);
 
         otpService.verifyOtp("test@example.com", OtpPurpose.REGISTER, "123456");
 
-        assertNotNull(otp.getConsumedAt());
-        assertEquals(0, otp.getAttempts());
+        verify(otpVerificationRepository, never())
+                .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc(anyString(), any());
+        verify(otpVerificationRepository, never()).incrementAttempts(any(), any());
     }
 
     @Test
@@ -123,7 +122,7 @@ class OtpServiceTest {
                 .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc("test@example.com", OtpPurpose.REGISTER))
                 .thenReturn(java.util.Optional.of(otp));
         when(otpHasher.matches("123456", "hash")).thenReturn(false);
-        when(otpVerificationRepository.save(any(OtpVerification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpVerificationRepository.incrementAttempts(any(), any())).thenReturn(1);
 
         AppException ex = assertThrows(AppException.class,
                 () -> otpService.verifyOtp("test@example.com", OtpPurpose.REGISTER, "123456"));
@@ -148,7 +147,7 @@ class OtpServiceTest {
         when(otpVerificationRepository
                 .findTopByEmailAndPurposeAndConsumedAtIsNullOrderByCreatedAtDesc("test@example.com", OtpPurpose.REGISTER))
                 .thenReturn(java.util.Optional.of(otp));
-        when(otpVerificationRepository.save(any(OtpVerification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpVerificationRepository.consume(any(), any())).thenReturn(1);
 
         AppException ex = assertThrows(AppException.class,
                 () -> otpService.verifyOtp("test@example.com", OtpPurpose.REGISTER, "123456"));
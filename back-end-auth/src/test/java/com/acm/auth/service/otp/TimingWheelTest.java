@@ -0,0 +1,70 @@
+package com.acm.auth.service.otp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEachTimerOnTheFirstTickAtOrAfterItsDeadlineAcrossLevels() {
+        // 4 slots x 3 levels = 64 ticks before timers are parked at the top
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 3, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            long deadline = 1 + random.nextInt(2_000);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 2_100; now += 10) {
+            long at = now;
+            wheel.advance(now, item -> firedAt.put(item, at));
+        }
+
+        assertEquals(500, firedAt.size());
+        assertEquals(0, wheel.size());
+        deadlines.forEach((item, deadline) -> {
+            long fired = firedAt.get(item);
+            assertTrue(fired >= deadline && fired < deadline + 10, "item " + item + " due " + deadline + " fired " + fired);
+        });
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 64, 4, 0);
+        TimingWheel.Timeout<String> kept = wheel.schedule("kept", 300_000);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 300_000);
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelled);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(600_000, fired::add);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals("kept", kept.item());
+        assertNull(wheel.schedule("past", 500_000));
+    }
+
+    @Test
+    void catchesUpAfterALongPause() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 64, 4, 0);
+        wheel.schedule("soon", 5_000);
+        wheel.schedule("later", 3_600_000);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10_000_000, fired::add);
+
+        assertEquals(List.of("soon", "later"), fired);
+    }
+}
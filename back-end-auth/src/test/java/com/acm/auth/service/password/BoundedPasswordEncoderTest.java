@@ -0,0 +1,68 @@
+package com.acm.auth.service.password;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private ThreadPoolExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void delegatesAndRecordsTimings() {
+        assertEquals("secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "secret"));
+
+        assertEquals(1, meterRegistry.get("password.hash.time").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("password.hash.queue.wait").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void rejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+
+        AppException ex = assertThrows(AppException.class, () -> encoder.matches("secret", "secret"));
+
+        assertEquals(ErrorCode.PASSWORD_HASHING_BUSY, ex.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+        release.countDown();
+    }
+}
@@ -0,0 +1,65 @@
+package com.acm.auth.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.acm.auth.support.MutableClock;
+
+class LocalRateLimitBackendTest {
+
+    private static final BucketSpec SPEC = new BucketSpec(3, 6);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @Test
+    void burstUpToCapacityThenRefillsOverTime() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(clock, 4, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, backend.tryAcquire("k", SPEC));
+        }
+        // 6 a minute: one token every 10s
+        assertEquals(10_000, backend.tryAcquire("k", SPEC));
+
+        clock.advance(Duration.ofSeconds(4));
+        assertEquals(6_000, backend.tryAcquire("k", SPEC));
+
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals(0, backend.tryAcquire("k", SPEC));
+        assertTrue(backend.tryAcquire("k", SPEC) > 0);
+        assertEquals(0, backend.tryAcquire("other", SPEC));
+    }
+
+    @Test
+    void evictIdleDropsOnlyBucketsThatHaveRefilled() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(clock, 1, 1000);
+        backend.tryAcquire("old", SPEC);
+        clock.advance(Duration.ofSeconds(20));
+        backend.tryAcquire("recent", SPEC);
+
+        // "old" is full after 30s idle, "recent" after 30s from now
+        clock.advance(Duration.ofSeconds(15));
+        backend.evictIdle();
+        assertEquals(1, backend.size());
+
+        clock.advance(Duration.ofSeconds(15));
+        backend.evictIdle();
+        assertEquals(0, backend.size());
+    }
+
+    @Test
+    void bucketCountIsBounded() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(clock, 4, 40);
+
+        for (int i = 0; i < 10_000; i++) {
+            backend.tryAcquire("key-" + i, SPEC);
+        }
+
+        assertTrue(backend.size() <= 40);
+    }
+}
@@ -0,0 +1,69 @@
+package com.acm.auth.service.role;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.acm.auth.entity.Role;
+import com.acm.auth.repository.RoleRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        when(roleRepository.findAll()).thenReturn(List.of(
+                role(1L, "USER", 10, "/dashboard"),
+                role(2L, "ADMIN", 100, "/admin")));
+        registry = new RoleRegistry(roleRepository);
+        registry.reload();
+    }
+
+    @Test
+    void precomputesPrimaryRoleRedirectAndScope() {
+        RoleRegistry.RoleSet roles = registry.roleSet(List.of(1L, 2L));
+
+        assertEquals("ADMIN", roles.primaryRole());
+        assertEquals("/admin", roles.redirectPath());
+        assertEquals("ROLE_ADMIN ROLE_USER", roles.scope());
+        assertEquals(List.of("ADMIN", "USER"), roles.codes());
+        assertSame(roles, registry.roleSet(List.of(1L, 2L)));
+    }
+
+    @Test
+    void reloadPicksUpRoleChanges() {
+        RoleRegistry.RoleSet before = registry.roleSet(List.of(1L));
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "USER", 10, "/home")));
+
+        registry.reload();
+
+        RoleRegistry.RoleSet after = registry.roleSet(List.of(1L));
+        assertNotSame(before, after);
+        assertEquals("/home", after.redirectPath());
+        assertEquals(RoleRegistry.RoleSet.EMPTY, registry.roleSet(List.of(2L)));
+    }
+
+    @Test
+    void unknownCodeFallsBackToDefaultRole() {
+        assertEquals("USER", registry.byCodeOrDefault("nope").code());
+        assertEquals("ADMIN", registry.byCodeOrDefault("admin").code());
+    }
+
+    private static Role role(Long id, String code, int priority, String redirectPath) {
+        return Role.builder().id(id).code(code).name(code).priority(priority).redirectPath(redirectPath).build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.acm.auth.service.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.acm.auth.support.MutableClock;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+class JwsKeyMaterialTest {
+
+    private static final String SIGNER_KEY = "z0B8QFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnUf3=";
+    private static final String NEXT_KEY = "n3xtK3yFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnU=";
+
+    private final JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .subject("user@example.com")
+            .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+            .build();
+
+    private MutableClock clock;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void hmacTokensCarryKidAndVerify() throws Exception {
+        JwsKeyMaterial keyMaterial = new JwsKeyMaterial(new MockEnvironment()
+                .withProperty("jwt.signer-key", SIGNER_KEY), clock);
+
+        SignedJWT token = SignedJWT.parse(keyMaterial.sign(claims));
+
+        assertEquals(JWSAlgorithm.HS512, token.getHeader().getAlgorithm());
+        assertNotNull(token.getHeader().getKeyID());
+        assertTrue(keyMaterial.verify(token));
+        assertTrue(keyMaterial.publicJwkSet().getKeys().isEmpty());
+    }
+
+    @Test
+    void switchingToEs256KeepsHmacTokensValid() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("jwt.signer-key", SIGNER_KEY);
+        JwsKeyMaterial keyMaterial = new JwsKeyMaterial(environment, clock);
+        String hmacToken = keyMaterial.sign(claims);
+
+        environment.setProperty("jwt.signing-algorithm", "ES256");
+        keyMaterial.refresh();
+        SignedJWT ecToken = SignedJWT.parse(keyMaterial.sign(claims));
+
+        assertEquals(JWSAlgorithm.ES256, ecToken.getHeader().getAlgorithm());
+        assertEquals(ecToken.getHeader().getKeyID(), keyMaterial.publicJwkSet().getKeys().get(0).getKeyID());
+        assertTrue(keyMaterial.verify(ecToken));
+        assertTrue(keyMaterial.verify(SignedJWT.parse(hmacToken)));
+    }
+
+    @Test
+    void unknownKidIsRejected() throws Exception {
+        JwsKeyMaterial keyMaterial = new JwsKeyMaterial(new MockEnvironment()
+                .withProperty("jwt.signer-key", SIGNER_KEY), clock);
+        String other = new JwsKeyMaterial(new MockEnvironment()
+                .withProperty("jwt.signer-key", NEXT_KEY), clock)
+                .sign(claims);
+
+        assertFalse(keyMaterial.verify(SignedJWT.parse(other)));
+    }
+
+    @Test
+    void rotatedKeyTakesOverAtActivationAndOldKeyRetiresAfterOverlap() throws Exception {
+        JwsKeyMaterial keyMaterial = new JwsKeyMaterial(new MockEnvironment()
+                .withProperty("jwt.signer-key", SIGNER_KEY)
+                .withProperty("jwt.key-ring.overlap-seconds", "3600")
+                .withProperty("jwt.key-ring.keys[0].kid", "2024-02")
+                .withProperty("jwt.key-ring.keys[0].secret", NEXT_KEY)
+                .withProperty("jwt.key-ring.keys[0].activates-at", "2024-01-01T01:00:00Z"), clock);
+
+        SignedJWT oldToken = SignedJWT.parse(keyMaterial.sign(claims));
+        assertFalse("2024-02".equals(oldToken.getHeader().getKeyID()));
+
+        clock.advance(Duration.ofHours(1));
+        SignedJWT newToken = SignedJWT.parse(keyMaterial.sign(claims));
+        assertEquals("2024-02", newToken.getHeader().getKeyID());
+        assertTrue(keyMaterial.verify(oldToken));
+        assertTrue(keyMaterial.verify(newToken));
+
+        clock.advance(Duration.ofHours(1));
+        assertFalse(keyMaterial.verify(oldToken));
+        assertTrue(keyMaterial.verify(newToken));
+    }
+}
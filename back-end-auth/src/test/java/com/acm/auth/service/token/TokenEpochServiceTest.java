@@ -0,0 +1,188 @@
+package com.acm.auth.service.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.config.CustomJwtDecoder;
+import com.acm.auth.controller.AdminUserController;
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.RoleRepository;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.service.AuthenticationService;
+import com.acm.auth.service.JwtTokenService;
+import com.acm.auth.service.UserService;
+import com.acm.auth.service.role.RoleRegistry;
+import com.acm.auth.service.user.LoginAttemptTracker;
+import com.acm.auth.service.user.UserImportService;
+import com.acm.auth.service.user.UserListingService;
+import com.acm.auth.service.user.UserSnapshotCache;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token epochs end to end: bumps through revokeAll, the admin status endpoint and
+ * sign-out-all, checked by the JWT decoder. Bumps have to commit to be seen by
+ * other connections, so the test runs without the enclosing test transaction
+ * and clears the table itself.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenEpochServiceTest {
+
+    private static final String SIGNER_KEY = "z0B8QFwXP+Lv6F8X9Q3mVHrS5uK2jN4wR7bT0dGhJc8pYaM1kIzEoDcA2xWnUf3=";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JwsKeyMaterial jwsKeyMaterial;
+    private TokenEpochService tokenEpochService;
+    private CustomJwtDecoder decoder;
+    private Long userId;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO users (user_name, email, status, token_epoch, version) "
+                + "VALUES ('carol', 'carol@acm.local', 'ACTIVE', 0, 0)");
+        userId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE user_name = 'carol'", Long.class);
+
+        UserSnapshotCache userSnapshotCache = new UserSnapshotCache(userRepository, new SimpleMeterRegistry(), 60, 100);
+        tokenEpochService = transactional(new TokenEpochService(userRepository, userSnapshotCache, 30, 100));
+        jwsKeyMaterial = new JwsKeyMaterial(new MockEnvironment().withProperty("jwt.signer-key", SIGNER_KEY),
+                Clock.systemUTC());
+        decoder = new CustomJwtDecoder(jwsKeyMaterial,
+                new TokenRevocationIndex(invalidatedTokenRepository, Clock.systemUTC(), 3600, 120, 60),
+                tokenEpochService);
+    }
+
+    @AfterEach
+    void teardown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void revokeAllRejectsTokensIssuedBeforeTheBump() throws Exception {
+        String before = token(0);
+        decoder.decode(before);
+
+        tokenEpochService.revokeAll(userId);
+
+        JwtException rejected = assertThrows(JwtException.class, () -> decoder.decode(before));
+        assertEquals("Token has been revoked", rejected.getMessage());
+        decoder.decode(token(1));
+    }
+
+    @Test
+    void cachedEpochIsInvalidatedAfterCommit() {
+        assertEquals(0L, tokenEpochService.currentEpoch(userId));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tokenEpochService.revokeAll(userId);
+            // A reader on another connection still sees, and caches, the committed epoch
+            assertEquals(0L, CompletableFuture.supplyAsync(() -> tokenEpochService.currentEpoch(userId)).join());
+        });
+
+        assertEquals(1L, tokenEpochService.currentEpoch(userId));
+    }
+
+    @Test
+    void statusChangeThroughAdminEndpointRevokesTokens() throws Exception {
+        String before = token(0);
+        decoder.decode(before);
+        UserService userService = transactional(new UserService(userRepository, mock(RoleRepository.class),
+                mock(RoleRegistry.class), mock(PasswordEncoder.class), tokenEpochService));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AdminUserController(userService,
+                mock(UserImportService.class), mock(UserListingService.class))).build();
+
+        mockMvc.perform(put("/api/v1/admin/users/{id}/status", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"LOCKED\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals("LOCKED", jdbcTemplate.queryForObject("SELECT status FROM users WHERE user_id = ?",
+                String.class, userId));
+        assertThrows(JwtException.class, () -> decoder.decode(before));
+    }
+
+    @Test
+    void signOutAllRevokesEveryTokenOfTheCurrentUser() throws Exception {
+        String first = token(0);
+        String second = token(0);
+        AuthenticationService authenticationService = new AuthenticationService(userRepository,
+                mock(PasswordEncoder.class), mock(JwtTokenService.class), tokenEpochService,
+                mock(UserSnapshotCache.class), mock(RoleRegistry.class), mock(LoginAttemptTracker.class));
+        Jwt jwt = decoder.decode(first);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt, List.of()));
+
+        authenticationService.logoutAll();
+
+        assertThrows(JwtException.class, () -> decoder.decode(first));
+        assertThrows(JwtException.class, () -> decoder.decode(second));
+        assertEquals(1L, userRepository.findTokenEpochById(userId).orElseThrow());
+    }
+
+    private String token(long epoch) throws Exception {
+        return jwsKeyMaterial.sign(new JWTClaimsSet.Builder()
+                .subject("carol@acm.local")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(600)))
+                .claim("user_id", userId)
+                .claim(TokenEpochService.EPOCH_CLAIM, epoch)
+                .build());
+    }
+
+    /**
+     * Applies the target's own @Transactional attributes.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T transactional(T target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (T) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,121 @@
+package com.acm.auth.service.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.acm.auth.repository.InvalidatedTokenRepository;
+import com.acm.auth.repository.RevokedTokenRef;
+import com.acm.auth.support.MutableClock;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationIndexTest {
+
+    @Mock
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    private MutableClock clock;
+    private TokenRevocationIndex index;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        index = new TokenRevocationIndex(invalidatedTokenRepository, clock, 3600, 120, 60);
+    }
+
+    @Test
+    void coldIndexFallsBackToDatabase() {
+        when(invalidatedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertEquals(TokenRevocationIndex.Lookup.UNKNOWN, index.lookup("jti-1"));
+        assertTrue(index.isRevoked("jti-1"));
+    }
+
+    @Test
+    void warmIndexAnswersWithoutDatabase() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of(
+                new RevokedTokenRef("jti-1", Date.from(clock.instant().plusSeconds(600)), Date.from(clock.instant()))));
+
+        index.sync();
+
+        assertTrue(index.isRevoked("jti-1"));
+        assertFalse(index.isRevoked("jti-2"));
+        verify(invalidatedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void laterSyncsOnlyFetchRowsSinceTheWatermark() {
+        Date firstCreated = Date.from(clock.instant());
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of(
+                new RevokedTokenRef("jti-1", Date.from(clock.instant().plusSeconds(600)), firstCreated)));
+        index.sync();
+
+        Date secondCreated = Date.from(clock.instant().plusSeconds(30));
+        when(invalidatedTokenRepository.findRefsCreatedSince(Date.from(clock.instant().minusSeconds(60))))
+                .thenReturn(List.of(new RevokedTokenRef("jti-2", Date.from(clock.instant().plusSeconds(600)),
+                        secondCreated)));
+        clock.advance(Duration.ofSeconds(30));
+        index.sync();
+
+        when(invalidatedTokenRepository.findRefsCreatedSince(Date.from(secondCreated.toInstant().minusSeconds(60))))
+                .thenReturn(List.of());
+        clock.advance(Duration.ofSeconds(30));
+        index.sync();
+
+        assertTrue(index.isRevoked("jti-1"));
+        assertTrue(index.isRevoked("jti-2"));
+        verify(invalidatedTokenRepository, times(1)).findRefsExpiringAfter(any(Date.class));
+    }
+
+    @Test
+    void emptyFirstLoadStillSwitchesToIncrementalSyncs() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        index.sync();
+
+        clock.advance(Duration.ofSeconds(30));
+        index.sync();
+        index.sync();
+
+        verify(invalidatedTokenRepository, times(1)).findRefsExpiringAfter(any(Date.class));
+        verify(invalidatedTokenRepository, times(2)).findRefsCreatedSince(Date.from(clock.instant()
+                .minusSeconds(30 + 60 + 60)));
+    }
+
+    @Test
+    void staleIndexFallsBackToDatabase() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        index.sync();
+
+        clock.advance(Duration.ofSeconds(121));
+
+        assertEquals(TokenRevocationIndex.Lookup.UNKNOWN, index.lookup("jti-2"));
+    }
+
+    @Test
+    void entriesAreDroppedOnceRefreshWindowHasPassed() {
+        when(invalidatedTokenRepository.findRefsExpiringAfter(any(Date.class))).thenReturn(List.of());
+        index.add("jti-1", Date.from(clock.instant().plusSeconds(60)));
+
+        clock.advance(Duration.ofSeconds(60 + 3600 - 1));
+        index.sync();
+        assertEquals(TokenRevocationIndex.Lookup.REVOKED, index.lookup("jti-1"));
+
+        clock.advance(Duration.ofMinutes(2));
+        index.sync();
+        assertEquals(TokenRevocationIndex.Lookup.NOT_REVOKED, index.lookup("jti-1"));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,140 @@
+package com.acm.auth.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.acm.auth.entity.User;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.exception.ErrorCode;
+import com.acm.auth.repository.UserRepository;
+import com.acm.auth.support.MutableClock;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+class LoginAttemptTrackerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private LoginAttemptTracker tracker;
+    private Long userId;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO users (user_name, email, status, token_epoch, version) "
+                + "VALUES ('bob', 'bob@acm.local', 'ACTIVE', 0, 0)");
+        userId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE user_name = 'bob'", Long.class);
+        tracker = tracker();
+    }
+
+    @Test
+    void locksAfterThresholdWithoutWritingEachFailure() {
+        for (int i = 0; i < 3; i++) {
+            tracker.checkNotLocked(user());
+            tracker.recordFailure(user());
+        }
+
+        assertEquals(0, storedFailures());
+        AppException locked = assertThrows(AppException.class, () -> tracker.checkNotLocked(user()));
+        assertEquals(ErrorCode.ACCOUNT_TEMPORARILY_LOCKED, locked.getErrorCode());
+
+        tracker.flush();
+        User stored = user();
+        assertEquals(3, stored.getFailedLoginAttempts());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 1), stored.getLockedUntil());
+
+        // Another node, or this one after a restart, sees the flushed lock
+        assertThrows(AppException.class, () -> tracker().checkNotLocked(stored));
+
+        clock.advance(Duration.ofSeconds(61));
+        assertDoesNotThrow(() -> tracker.checkNotLocked(user()));
+    }
+
+    @Test
+    void lockWindowDoublesUpToTheMax() {
+        assertEquals(Duration.ofMinutes(1), tracker.lockDuration(3));
+        assertEquals(Duration.ofMinutes(2), tracker.lockDuration(6));
+        assertEquals(Duration.ofMinutes(4), tracker.lockDuration(9));
+        assertEquals(Duration.ofMinutes(5), tracker.lockDuration(12));
+        assertEquals(Duration.ofMinutes(5), tracker.lockDuration(3_000));
+    }
+
+    @Test
+    void successClearsStoredFailuresAndLock() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(user());
+        }
+        tracker.flush();
+        clock.advance(Duration.ofMinutes(2));
+
+        // A fresh tracker only has the row to go on
+        LoginAttemptTracker other = tracker();
+        other.checkNotLocked(user());
+        other.recordSuccess(user());
+        other.flush();
+
+        User stored = user();
+        assertEquals(0, stored.getFailedLoginAttempts());
+        assertNull(stored.getLockedUntil());
+        assertEquals(0, other.size());
+    }
+
+    @Test
+    void failuresFromSeveralNodesAddUp() {
+        LoginAttemptTracker other = tracker();
+
+        tracker.recordFailure(user());
+        other.recordFailure(user());
+        tracker.flush();
+        other.flush();
+        assertEquals(2, storedFailures());
+
+        // The third failure counts the other node's flushed ones and locks
+        tracker.recordFailure(user());
+        assertThrows(AppException.class, () -> tracker.checkNotLocked(user()));
+        tracker.flush();
+        assertNotNull(user().getLockedUntil());
+    }
+
+    @Test
+    void successWithNothingToClearWritesNothing() {
+        tracker.recordSuccess(user());
+
+        assertEquals(0, tracker.size());
+    }
+
+    private LoginAttemptTracker tracker() {
+        return new LoginAttemptTracker(jdbcTemplate, clock, 3, 60, 300, 4, 100);
+    }
+
+    private User user() {
+        entityManager.clear();
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    private int storedFailures() {
+        return jdbcTemplate.queryForObject("SELECT failed_login_attempts FROM users WHERE user_id = ?",
+                Integer.class, userId);
+    }
+}
@@ -0,0 +1,110 @@
+package com.acm.auth.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acm.auth.dto.response.UserImportResponse;
+import com.acm.auth.repository.RoleRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+@DataJpaTest
+class UserImportServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private ExecutorService executor;
+    private UserImportService importService;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO roles (code, name, priority) VALUES ('USER', 'User', 10)");
+        jdbcTemplate.update("INSERT INTO roles (code, name, priority) VALUES ('ADMIN', 'Admin', 100)");
+        jdbcTemplate.update("INSERT INTO users (user_name, email, status, token_epoch, version) "
+                + "VALUES ('taken', 'taken@acm.local', 'ACTIVE', 0, 0)");
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.reload();
+        executor = Executors.newFixedThreadPool(2);
+        importService = new UserImportService(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                new TransactionTemplate(transactionManager), NoOpPasswordEncoder.getInstance(), roleRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), executor, 2, 100);
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void importsCsvInBatchesAndReportsRejectedRows() throws Exception {
+        String csv = """
+                username,email,password,full_name,phone,role
+                alice,alice@acm.local,secret1,"Alice, A.",0901,
+                bob,bob@acm.local,secret2,Bob,0902,ADMIN
+                carol,taken@acm.local,secret3,Carol,0903,
+                dave,not-an-email,secret4,Dave,0904,
+                alice,alice2@acm.local,secret5,Alice 2,0905,
+                erin,erin@acm.local,secret6,Erin,0906,OWNER
+                frank,frank@acm.local,secret7,Frank,0907,USER
+                """;
+
+        UserImportResponse response = importService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.TEXT_CSV);
+
+        assertEquals(7, response.getTotal());
+        assertEquals(3, response.getImported());
+        assertEquals(4, response.getFailed());
+        assertEquals(List.of(4, 5, 6, 7), response.getFailures().stream()
+                .map(UserImportResponse.RowFailure::getLine).sorted().toList());
+        assertEquals("Alice, A.", jdbcTemplate.queryForObject(
+                "SELECT full_name FROM users WHERE user_name = 'alice'", String.class));
+        assertEquals("ADMIN", jdbcTemplate.queryForObject("SELECT r.code FROM user_roles ur "
+                + "JOIN users u ON u.user_id = ur.user_id JOIN roles r ON r.role_id = ur.role_id "
+                + "WHERE u.user_name = 'bob'", String.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class));
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = """
+                {"username":"gina","email":"gina@acm.local","password":"secret1"}
+                {"username":"hank","email":"hank@acm.local","password":"secret2","role":"ADMIN"}
+                {"username":
+                """;
+
+        UserImportResponse response = importService.importUsers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_NDJSON);
+
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals("INVALID_REQUEST", response.getFailures().get(0).getCode());
+        assertEquals("secret2", jdbcTemplate.queryForObject(
+                "SELECT password_hash FROM users WHERE user_name = 'hank'", String.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.acm.auth.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.acm.auth.dto.response.UserPageResponse;
+import com.acm.auth.dto.response.UserResponse;
+import com.acm.auth.enums.UserStatus;
+import com.acm.auth.exception.AppException;
+import com.acm.auth.repository.RoleRepository;
+import com.acm.auth.service.role.RoleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest
+class UserListingServiceTest {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserListingService listingService;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO roles (code, name, priority) VALUES ('USER', 'User', 10)");
+        jdbcTemplate.update("INSERT INTO roles (code, name, priority) VALUES ('ADMIN', 'Admin', 100)");
+        for (int i = 1; i <= USERS; i++) {
+            jdbcTemplate.update("INSERT INTO users (user_name, email, status, token_epoch, version) "
+                    + "VALUES (?, ?, ?, 0, 0)", "user" + i, "user" + i + "@acm.local",
+                    i % 5 == 0 ? "LOCKED" : "ACTIVE");
+            jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT u.user_id, r.role_id "
+                    + "FROM users u, roles r WHERE u.user_name = ? AND r.code = 'USER'", "user" + i);
+        }
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT u.user_id, r.role_id "
+                + "FROM users u, roles r WHERE u.user_name IN ('user3', 'user10') AND r.code = 'ADMIN'");
+
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.reload();
+        listingService = new UserListingService(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                roleRegistry, transactionManager, objectMapper, 100, 7);
+    }
+
+    @Test
+    void pagesWithCursorUntilExhausted() {
+        List<UserResponse> all = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            UserPageResponse page = listingService.list(null, null, cursor, 10);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(USERS, all.size());
+        assertEquals(USERS, all.stream().map(UserResponse::getId).distinct().count());
+        assertEquals("ADMIN", all.stream().filter(u -> u.getUsername().equals("user3")).findFirst()
+                .orElseThrow().getRole());
+    }
+
+    @Test
+    void filtersByStatusAndRole() {
+        UserPageResponse locked = listingService.list(UserStatus.LOCKED, null, null, 50);
+        assertEquals(5, locked.getItems().size());
+        assertNull(locked.getNextCursor());
+
+        UserPageResponse lockedAdmins = listingService.list(UserStatus.LOCKED, "admin", null, 50);
+        assertEquals(List.of("user10"), lockedAdmins.getItems().stream().map(UserResponse::getUsername).toList());
+
+        assertThrows(AppException.class, () -> listingService.list(null, "OWNER", null, 50));
+    }
+
+    @Test
+    void exportStreamsOneLinePerUser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listingService.export(UserStatus.ACTIVE, null).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(20, lines.length);
+        UserResponse user3 = objectMapper.readValue(lines[2], UserResponse.class);
+        assertEquals("user3", user3.getUsername());
+        assertEquals("ADMIN", user3.getRole());
+        assertEquals("USER", objectMapper.readValue(lines[0], UserResponse.class).getRole());
+    }
+}
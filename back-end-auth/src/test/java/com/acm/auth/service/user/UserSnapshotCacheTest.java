@@ -0,0 +1,71 @@
+package com.acm.auth.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.acm.auth.entity.Role;
+import com.acm.auth.entity.User;
+import com.acm.auth.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserSnapshotCache cache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserSnapshotCache(userRepository, meterRegistry, 60, 100);
+    }
+
+    @Test
+    void loadsOncePerUserUntilEvicted() {
+        when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(user("a@acm.local")));
+
+        cache.getById(1L);
+        cache.getById(1L);
+        cache.evict(1L);
+        cache.getById(1L);
+
+        verify(userRepository, times(2)).findByIdWithRoles(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void identifierHitIsRecheckedAgainstSnapshot() {
+        when(userRepository.findByIdentifierWithRoles("a@acm.local")).thenReturn(Optional.of(user("a@acm.local")));
+        cache.getByIdentifier("a@acm.local");
+
+        // email changed: the stale identifier mapping must not return the renamed user
+        cache.put(UserSnapshot.from(user("b@acm.local")));
+        when(userRepository.findByIdentifierWithRoles("a@acm.local")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), cache.getByIdentifier("a@acm.local"));
+        verify(userRepository, times(2)).findByIdentifierWithRoles("a@acm.local");
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .id(1L)
+                .email(email)
+                .username("user1")
+                .roles(Set.of(Role.builder().id(2L).code("USER").name("User").build()))
+                .build();
+    }
+}
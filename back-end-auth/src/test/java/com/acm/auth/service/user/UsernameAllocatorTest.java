@@ -0,0 +1,83 @@
+package com.acm.auth.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.acm.auth.entity.User;
+import com.acm.auth.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameAllocatorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UsernameAllocator allocator;
+
+    @BeforeEach
+    void setup() {
+        allocator = new UsernameAllocator(userRepository, transactionManager);
+    }
+
+    @Test
+    void continuesAfterHighestTakenSuffix() {
+        when(userRepository.findHighestNumberedUsername("john", "john%", 5)).thenReturn(Optional.empty());
+        assertEquals("john", allocator.nextAvailable("john"));
+
+        when(userRepository.findHighestNumberedUsername("john", "john%", 5)).thenReturn(Optional.of("john"));
+        assertEquals("john1", allocator.nextAvailable("john"));
+
+        when(userRepository.findHighestNumberedUsername("john", "john%", 5)).thenReturn(Optional.of("john41"));
+        assertEquals("john42", allocator.nextAvailable("john"));
+
+        when(userRepository.findHighestNumberedUsername("j_o%n", "j!_o!%n%", 6)).thenReturn(Optional.empty());
+        assertEquals("j_o%n", allocator.nextAvailable("j_o%n"));
+    }
+
+    @Test
+    void retriesWithNextNameWhenUsernameIsTakenConcurrently() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.findHighestNumberedUsername("john", "john%", 5))
+                .thenReturn(Optional.of("john"), Optional.of("john1"));
+        when(userRepository.existsByUsername("john1")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_user_name"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        User user = allocator.insertWithUniqueUsername("john", username -> User.builder().username(username).build());
+
+        assertEquals("john2", user.getUsername());
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void rethrowsConflictsOnOtherColumns() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.findHighestNumberedUsername("john", "john%", 5)).thenReturn(Optional.empty());
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_google_id"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> allocator.insertWithUniqueUsername("john", username -> User.builder().username(username).build()));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+    }
+}